@@ -29,7 +29,7 @@ Builds whole project
 
 OPTIONS:
   -i                     Build image and remove unused images
-  -r                     Remove buildx cache
+  -r                     Remove buildx cache, including the cache mounts of apt, npm and the downloads
   -t                     Run tests
   -d                     Dry-run JReleaser release
 EOF
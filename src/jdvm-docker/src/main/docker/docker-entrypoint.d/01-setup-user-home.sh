@@ -1,5 +1,9 @@
 #!/bin/bash
 # SETUPS USER HOME
+# INPUTS: ~/apps
+# INPUTS: ~/.gitconfig ~/.config/dconf/user ~/.config/go/telemetry/mode ~/.config/kitty/kitty.conf ~/.krew/index ~/.krew/*
+# INPUTS: ~/.config/launchee/launchee.yml ~/.m2/repository ~/.m2/settings.xml ~/projects ~/.sdkman/candidates ~/.sdkman/*
+# INPUTS: ~/.config/tealdeer/config.toml ~/.config/user-dirs.dirs ~/.yarnrc.yml
 
 #
 # © 2024-2025 JDHeim
@@ -25,7 +29,6 @@ readonly INFO="\e[1;34m>\e[0m"
 
 main() {
   setupApps
-  setupFirefox
   setupGit
   symlinkWithBackup "Setup Gnome Settings" "/etc/jdvm-templates/base/dconf/user" "/home/${USER}/.config/dconf/user"
   setupGo
@@ -47,34 +50,6 @@ setupApps() {
   fi
 }
 
-setupFirefox() {
-  local profileDir
-  profileDir="$(printf '%s\n' "/home/${USER}/.mozilla/firefox"/*.dev)"
-  if notExistsOrNotSymlink "${profileDir}/user.js"; then
-    echo -e "${INFO} Setup Firefox..."
-    if [[ ! -e "${profileDir}" ]]; then
-      firefox --headless -CreateProfile "${USER}" > /dev/null 2>&1
-      profileDir="$(printf '%s\n' "/home/${USER}/.mozilla/firefox"/*.dev)"
-      echo -e "${INFO} Created $(basename "${profileDir}") Firefox profile"
-    fi
-    backup "${profileDir}/user.js"
-    ln -v --symbolic --force "/etc/jdvm-config/betterfox-user.js" "${profileDir}/user.js"
-  else
-    local currentSha savedSha
-    currentSha=$(sha256sum "$(readlink -f "${profileDir}/user.js")" | awk '{print $1}')
-    if [[ -f "${profileDir}/.userjs.sha256" ]]; then
-        savedSha="$(cat "${profileDir}/.userjs.sha256")"
-    fi
-    if [[ "${currentSha}" != "${savedSha-}" ]]; then
-        echo -e "${INFO} Detected change in Firefox user.js - removing prefs.js to reload settings"
-        echo "${currentSha}" > "${profileDir}/.userjs.sha256"
-        if [[ -f "${profileDir}/prefs.js" ]]; then
-          rm -v "${profileDir}/prefs.js"
-        fi
-    fi
-  fi
-}
-
 setupGit() {
   if [[ ! -e "/home/${USER}/.gitconfig" || -z "$(git config --global "init.defaultBranch")" ]]; then
     echo -e "${INFO} Setup Git: set init.defaultBranch=main..."
@@ -132,6 +107,10 @@ setupMaven() {
     echo -e "${INFO} Setup Maven..."
     mkdir -v --parents "/home/${USER}/.m2/repository"
   fi
+  # THE SETTINGS MIRROR MAVEN CENTRAL THROUGH JDVM-PROXY ONLY WHILE IT IS RUNNING, SO THEY ARE SAFE WITHOUT IT
+  if [[ ! -e "/home/${USER}/.m2/settings.xml" ]]; then
+    cp -v "/etc/jdvm-config/maven-settings.xml" "/home/${USER}/.m2/settings.xml"
+  fi
 }
 
 setupProjects() {
@@ -167,6 +146,11 @@ setupYarn() {
     echo "enableTelemetry: false" | tee "/home/${USER}/.yarnrc.yml" > /dev/null
     echo "Telemetry turned off"
   fi
+  # YARN REFUSES PLAIN HTTP REGISTRIES, SUCH AS JDVM-PROXY, UNLESS THEIR HOSTS ARE WHITELISTED
+  if ! grep -q "^unsafeHttpWhitelist:" "/home/${USER}/.yarnrc.yml"; then
+    printf "unsafeHttpWhitelist:\n  - \"127.0.0.1\"\n" >> "/home/${USER}/.yarnrc.yml"
+    echo "Allowed plain HTTP to jdvm-proxy"
+  fi
 }
 
 symlinkWithBackup() {
@@ -1,5 +1,6 @@
 #!/bin/bash
 # SYNCHRONIZES USER TEMPLATES
+# TEMPLATES: /etc/jdvm-templates/user
 
 #
 # © 2024-2025 JDHeim
@@ -22,7 +23,7 @@ set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
 set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
 
 main() {
-  rsync -v --archive "/etc/jdvm-templates/user/" "/home/${USER}/"
+  jdvm-sync-templates "/etc/jdvm-templates/user" "/home/${USER}"
 }
 
 main
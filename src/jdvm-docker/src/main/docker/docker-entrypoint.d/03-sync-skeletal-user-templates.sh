@@ -1,5 +1,6 @@
 #!/bin/bash
 # SYNCHRONIZES SKELETAL USER TEMPLATES
+# TEMPLATES: /etc/skel
 
 #
 # © 2024-2025 JDHeim
@@ -22,7 +23,7 @@ set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
 set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
 
 main() {
-  rsync -v --archive "/etc/skel/" "/home/${USER}/"
+  jdvm-sync-templates "/etc/skel" "/home/${USER}"
 }
 
 main
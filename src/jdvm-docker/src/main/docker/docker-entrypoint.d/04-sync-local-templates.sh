@@ -1,5 +1,6 @@
 #!/bin/bash
 # SYNCHRONIZES LOCAL TEMPLATES IF THEY ARE MISSING
+# TEMPLATES: /etc/jdvm-templates/local
 
 #
 # © 2024-2025 JDHeim
@@ -22,7 +23,7 @@ set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
 set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
 
 main() {
-  rsync -v --ignore-existing --archive "/etc/jdvm-templates/local/" "/home/${USER}/"
+  jdvm-sync-templates --ignore-existing "/etc/jdvm-templates/local" "/home/${USER}"
 }
 
 main
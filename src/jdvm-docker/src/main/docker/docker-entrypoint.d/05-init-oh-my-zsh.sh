@@ -1,5 +1,8 @@
 #!/bin/bash
 # INITIALIZES OH MY ZSH
+# DEPENDS ON: 01-setup-user-home.sh
+# INPUTS: ~/.oh-my-zsh/custom ~/.cache/gitstatus/gitstatusd-linux-x86_64
+# INPUTS: ~/apps/intellij-idea/jbr/lib/fonts ~/apps/intellij-idea/jbr/lib/fonts/MesloLGS-NF-*.ttf
 
 #
 # © 2024-2025 JDHeim
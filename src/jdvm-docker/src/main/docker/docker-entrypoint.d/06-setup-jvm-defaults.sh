@@ -0,0 +1,107 @@
+#!/bin/bash
+# SETUPS MAVEN AND GRADLE DEFAULTS FROM THE CPU AND MEMORY LIMITS OF THE CONTAINER
+# DEPENDS ON: 02-sync-user-templates.sh
+# INPUTS: /usr/local/bin/jdvm-cgroup-limits /sys/fs/cgroup/cpu.max /sys/fs/cgroup/cpuset.cpus.effective /sys/fs/cgroup/memory.max
+# INPUTS: /etc/jdvm-templates/base/jvm-env ~/.gradle/gradle.properties
+
+#
+# © 2024-2025 JDHeim
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     https://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -o errexit  # ABORT ON NON-ZERO EXIT STATUS
+set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
+set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
+
+# THE CPULIMIT AND MEMORYLIMIT FUNCTIONS ARE SHARED WITH JDVM-DOCKER-DAEMON
+source "/usr/local/bin/jdvm-cgroup-limits"
+
+# CONSTANTS
+# LOADED BY ~/.BASH_ENV AND ~/.ZSHENV BEFORE ~/.ENV.LOCAL, WHICH OVERRIDES THE DEFAULTS
+readonly JVM_ENV_FILE="/etc/jdvm-templates/base/jvm-env"
+# THE DEFAULTS ARE KEPT BETWEEN THE BLOCK LINES AT THE TOP, SO THE USER PROPERTIES BELOW THEM OVERRIDE THEM
+readonly GRADLE_PROPERTIES_FILE="/home/${USER}/.gradle/gradle.properties"
+readonly GRADLE_BLOCK_BEGIN="# BEGIN JDVM DEFAULTS - MANAGED BY THE CONTAINER AND REPLACED ON STARTUP, OVERRIDE THEM BELOW"
+readonly GRADLE_BLOCK_END="# END JDVM DEFAULTS"
+readonly MIB=$(( 1024 ** 2 ))
+# THE MAVEN AND GRADLE HEAP IS A QUARTER OF THE MEMORY, WITHIN THESE BOUNDS IN MIB
+readonly MIN_BUILD_HEAP=512
+readonly MAX_BUILD_HEAP=8192
+# EVERY BUILD THREAD AND GRADLE WORKER GETS AT LEAST THIS MEMORY IN MIB, E.G. FOR ITS FORKED COMPILER OR TEST JVM
+readonly BUILD_THREAD_MEMORY=1024
+readonly INFO="\e[1;34m>\e[0m"
+
+main() {
+  local cpus memory buildHeap buildGc buildThreads idleTimeout
+  cpus="$(cpuLimit)"
+  memory=$(( $(memoryLimit) / MIB ))
+  buildHeap=$(( memory / 4 ))
+  buildHeap=$(( buildHeap < MIN_BUILD_HEAP ? MIN_BUILD_HEAP : buildHeap > MAX_BUILD_HEAP ? MAX_BUILD_HEAP : buildHeap ))
+  # THE BUILD JVMS ARE THROUGHPUT ORIENTED, SO THEY USE THE PARALLEL GC, UNLESS THERE IS A SINGLE CPU
+  buildGc="ParallelGC"
+  if (( cpus < 2 )); then
+    buildGc="SerialGC"
+  fi
+  buildThreads=$(( memory / BUILD_THREAD_MEMORY ))
+  buildThreads=$(( buildThreads < 1 ? 1 : buildThreads > cpus ? cpus : buildThreads ))
+  # IDLE DAEMONS KEEP THEIR HEAP, SO WITH LITTLE MEMORY THEY STOP AFTER 15 MINUTES INSTEAD OF 3 HOURS
+  idleTimeout=$(( memory < 8192 ? 900000 : 10800000 ))
+
+  echo -e "${INFO} ${cpus} CPUs, ${memory} MiB memory: ${buildHeap} MiB Maven and Gradle heap, ${buildGc}," \
+    "${buildThreads} build threads"
+  writeJvmEnv "${cpus}" "${memory}" "${buildHeap}" "${buildGc}" "${buildThreads}"
+  writeGradleProperties "${buildHeap}" "${buildGc}" "${buildThreads}" "${idleTimeout}"
+}
+
+# ONLY MAVEN IS SIZED HERE, AS JAVA_TOOL_OPTIONS WOULD APPLY TO EVERY JVM, E.G. THE IDE, WHICH SIZES ITS OWN
+writeJvmEnv() {
+  local cpus="${1}"
+  local memory="${2}"
+  local buildHeap="${3}"
+  local buildGc="${4}"
+  local buildThreads="${5}"
+  cat << EOF | sudo tee "${JVM_ENV_FILE}" > /dev/null
+# THIS FILE IS GENERATED BY THE CONTAINER ON STARTUP FROM ITS LIMITS: ${cpus} CPUS AND ${memory} MIB MEMORY.
+# DO NOT EDIT THIS FILE - ANY CHANGES WILL BE LOST.
+# TO OVERRIDE THE DEFAULTS, USE: ~/.env.local FILE.
+
+export MAVEN_OPTS="-Xmx${buildHeap}m -XX:+Use${buildGc}"
+if [[ " \${MAVEN_ARGS-} " != *" -T "* ]]; then
+  export MAVEN_ARGS="-T ${buildThreads}\${MAVEN_ARGS:+ \${MAVEN_ARGS}}"
+fi
+EOF
+  echo "Saved ${JVM_ENV_FILE}"
+}
+
+writeGradleProperties() {
+  local buildHeap="${1}"
+  local buildGc="${2}"
+  local buildThreads="${3}"
+  local idleTimeout="${4}"
+  mkdir --parents "$(dirname "${GRADLE_PROPERTIES_FILE}")"
+  {
+    echo "${GRADLE_BLOCK_BEGIN}"
+    echo "org.gradle.jvmargs=-Xmx${buildHeap}m -XX:MaxMetaspaceSize=1g -XX:+Use${buildGc} -Dfile.encoding=UTF-8"
+    echo "org.gradle.workers.max=${buildThreads}"
+    echo "org.gradle.daemon.idletimeout=${idleTimeout}"
+    echo "${GRADLE_BLOCK_END}"
+    if [[ -f "${GRADLE_PROPERTIES_FILE}" ]]; then
+      sed "/^${GRADLE_BLOCK_BEGIN}/,/^${GRADLE_BLOCK_END}/d" "${GRADLE_PROPERTIES_FILE}"
+    fi
+  } > "${GRADLE_PROPERTIES_FILE}.tmp"
+  mv "${GRADLE_PROPERTIES_FILE}.tmp" "${GRADLE_PROPERTIES_FILE}"
+  echo "Saved ${GRADLE_PROPERTIES_FILE}"
+}
+
+main
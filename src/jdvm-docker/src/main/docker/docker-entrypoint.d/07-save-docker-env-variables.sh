@@ -1,5 +1,6 @@
 #!/bin/bash
 # SAVES DOCKER ENV VARIABLES TO A FILE
+# INPUTS: /etc/jdvm-templates/base/docker-env
 
 #
 # © 2024-2025 JDHeim
@@ -21,9 +22,12 @@ set -o errexit  # ABORT ON NON-ZERO EXIT STATUS
 set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
 set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
 
+# THE SCRIPT RUNS IN JDVM-INIT.SERVICE, SO THE VARIABLES ARE READ FROM THE DOCKER ENV SAVED BY THE ENTRYPOINT,
+# NOT FROM ITS OWN ENVIRONMENT, WHICH HOLDS THE SYSTEMD ONES, E.G. INVOCATION_ID AND JOURNAL_STREAM
 main() {
   if [[ ! -e "/etc/jdvm-templates/base/docker-env" ]]; then
-    printenv | grep -Ev "^(HOME|LANG|LOGNAME|LS_COLORS|MAIL|PATH|PWD|SHELL|SHLVL|TERM|USER|_)=" | grep -v "^SUDO_" | sed "s/^/export /" \
+    sudo cat "/var/lib/jdvm/docker-env" | tr "\0" "\n" \
+      | grep -Ev "^(HOME|LANG|LOGNAME|LS_COLORS|MAIL|PATH|PWD|SHELL|SHLVL|TERM|USER|_)=" | grep -v "^SUDO_" | sed "s/^/export /" \
       | sudo tee "/etc/jdvm-templates/base/docker-env"
   fi
 }
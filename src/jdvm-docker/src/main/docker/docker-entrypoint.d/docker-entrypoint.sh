@@ -1,5 +1,7 @@
 #!/bin/bash
-# RUNS INIT SCRIPTS IN /DOCKER-ENTRYPOINT.D/ AND THEN STARTS SYSTEMD
+# STARTS SYSTEMD, WHICH RUNS INIT SCRIPTS IN /DOCKER-ENTRYPOINT.D/ WITH JDVM-INIT.SERVICE
+# WITH --INIT, RUNS INIT SCRIPTS CONCURRENTLY, IN THE ORDER OF THEIR DEPENDENCIES
+# WITH --FOLLOW-JOURNAL, FORWARDS THE FILTERED AND RATE LIMITED JOURNAL FOR JDVM-JOURNAL.SERVICE
 
 #
 # © 2024-2025 JDHeim
@@ -21,7 +23,24 @@ set -o errexit  # ABORT ON NON-ZERO EXIT STATUS
 set -o nounset  # TREAT UNSET VARIABLES AS AN ERROR AND EXIT
 set -o pipefail # DON'T HIDE ERRORS WITHIN PIPES
 
+readonly ARGS=( "$@" )
 readonly DOCKER_ENTRYPOINT_DIR="/docker-entrypoint.d"
+# SYSTEMD STARTS SERVICES WITH A CLEAN ENVIRONMENT, SO THE DOCKER ONE IS SAVED FOR JDVM-INIT.SERVICE
+readonly DOCKER_ENV_FILE="/var/lib/jdvm/docker-env"
+# JDVM-JOURNAL.SERVICE WRITES TO THE FIFO, WHICH IS FORWARDED TO THE CONTAINER OUTPUT
+readonly JOURNAL_FIFO="/var/lib/jdvm/journal.fifo"
+# JOURNAL FILTERS, OVERRIDDEN WITH DOCKER ENV VARIABLES: JDVM_LOG_UNITS (ALL BY DEFAULT), JDVM_LOG_PRIORITY
+# AND JDVM_LOG_RATE_LIMIT (MAX MESSAGES PER UNIT PER SECOND, 0 TURNS IT OFF)
+readonly DEFAULT_LOG_PRIORITY="info"
+readonly DEFAULT_LOG_RATE_LIMIT=20
+readonly USER_HOME="/home/${JDVM_USER}"
+readonly STATE_DIR="${USER_HOME}/.local/state/jdvm/docker-entrypoint.d"
+# INIT SCRIPTS DECLARE THEIR DEPENDENCIES AND INPUTS WITH HEADER LINES, E.G.: # DEPENDS ON: 01-setup-user-home.sh
+readonly DEPENDS_ON="# DEPENDS ON:"
+# PATHS READ OR MANAGED BY THE SCRIPT, ~ AND GLOBS ARE EXPANDED
+readonly INPUTS="# INPUTS:"
+# TEMPLATE DIRECTORIES SYNCED INTO THE USER HOME
+readonly TEMPLATES="# TEMPLATES:"
 
 readonly STEP="[\e[1;96mSTEP\e[0m]"
 readonly LINE="\e[1;96m-----\e[0m"
@@ -29,9 +48,23 @@ readonly INFO="[\e[1;34mINFO\e[0m]"
 readonly ERROR="[\e[1;31mERROR\e[0m]"
 readonly SUCCESS="[\e[1;32mSUCCESS\e[0m]"
 
+# INIT SCRIPTS: PENDING IN THE ORDER OF THEIR NAMES, RUNNING BY PID AND FINISHED BY NAME
+PENDING_FILES=()
+declare -A RUNNING_FILES=()
+declare -A FINISHED_FILES=()
+declare -A DEPENDENCIES=()
+
 main() {
-  init
-  startSystemd
+  if [[ "${ARGS[0]:-}" == "--init" ]]; then
+    loadDockerEnv
+    init
+  elif [[ "${ARGS[0]:-}" == "--follow-journal" ]]; then
+    loadDockerEnv
+    followJournal
+  else
+    saveDockerEnv
+    startSystemd
+  fi
 }
 
 step() {
@@ -42,33 +75,236 @@ step() {
 init() {
   step "Start initialization"
   if [[ -d "${DOCKER_ENTRYPOINT_DIR}" ]]; then
-    for file in "${DOCKER_ENTRYPOINT_DIR}/"*.sh; do
-      [[ "$(basename "${file}")" == "$(basename "${0}")" ]] && continue
-      if [[ -x "${file}" ]]; then
-        echo -e "${INFO} Running ${file}"
-        if [[ "${file}" != *docker-env* ]]; then
-          sudo -u "${JDVM_USER}" bash "${file}"
-        else
-          sudo -E -u "${JDVM_USER}" bash "${file}"
-        fi
-      else
-        echo -e "${ERROR} ${file} is not executable"
+    loadFiles
+    while (( ${#PENDING_FILES[@]} > 0 || ${#RUNNING_FILES[@]} > 0 )); do
+      startReadyFiles
+      (( ${#RUNNING_FILES[@]} == 0 )) || awaitFile
+    done
+    echo -e "${SUCCESS} Initialization complete"
+  fi
+}
+
+loadFiles() {
+  for file in "${DOCKER_ENTRYPOINT_DIR}/"*.sh; do
+    [[ "$(basename "${file}")" == "$(basename "${0}")" ]] && continue
+    if [[ ! -x "${file}" ]]; then
+      echo -e "${ERROR} ${file} is not executable"
+      exit 1
+    fi
+    PENDING_FILES+=( "${file}" )
+    DEPENDENCIES["$(basename "${file}")"]="$(headerValues "${file}" "${DEPENDS_ON}")"
+  done
+  for file in "${PENDING_FILES[@]}"; do
+    for dependency in ${DEPENDENCIES["$(basename "${file}")"]}; do
+      if [[ ! -v DEPENDENCIES["${dependency}"] ]]; then
+        echo -e "${ERROR} ${file} depends on ${DOCKER_ENTRYPOINT_DIR}/${dependency} which does not exist"
         exit 1
       fi
     done
-    echo -e "${SUCCESS} Initialization complete"
+  done
+}
+
+startReadyFiles() {
+  local waitingFiles=() skipped=false
+  for file in "${PENDING_FILES[@]}"; do
+    if ! isReady "${file}"; then
+      waitingFiles+=( "${file}" )
+    elif isUnchanged "${file}"; then
+      echo "[$(basename "${file}" ".sh")] Skipped, inputs unchanged since the last run"
+      FINISHED_FILES["$(basename "${file}")"]="skipped"
+      skipped=true
+    else
+      echo -e "${INFO} Running ${file}"
+      runFile "${file}" &
+      RUNNING_FILES["${!}"]="${file}"
+    fi
+  done
+  PENDING_FILES=( "${waitingFiles[@]}" )
+  # A SKIPPED FILE FINISHES AT ONCE, SO THE FILES DEPENDING ON IT MAY BE READY NOW
+  if [[ "${skipped}" == true ]] && (( ${#PENDING_FILES[@]} > 0 )); then
+    startReadyFiles
+    return
   fi
+  if (( ${#RUNNING_FILES[@]} == 0 && ${#PENDING_FILES[@]} > 0 )); then
+    echo -e "${ERROR} Circular dependencies between: ${PENDING_FILES[*]}"
+    exit 1
+  fi
+}
+
+isReady() {
+  local file="${1}"
+  for dependency in ${DEPENDENCIES["$(basename "${file}")"]}; do
+    [[ -v FINISHED_FILES["${dependency}"] ]] || return 1
+  done
+}
+
+isUnchanged() {
+  local file="${1}"
+  local stateFile
+  stateFile="${STATE_DIR}/$(basename "${file}").sha256"
+  [[ -f "${stateFile}" && "$(fingerprint "${file}")" == "$(cat "${stateFile}")" ]]
+}
+
+runFile() {
+  local file="${1}"
+  local prefix stateFile
+  prefix="[$(basename "${file}" ".sh")]"
+  stateFile="${STATE_DIR}/$(basename "${file}").sha256"
+  sudo -u "${JDVM_USER}" bash "${file}" 2>&1 | sed -u "s/^/${prefix} /"
+  sudo -u "${JDVM_USER}" mkdir --parents "${STATE_DIR}"
+  fingerprint "${file}" | sudo -u "${JDVM_USER}" tee "${stateFile}" > /dev/null
+}
+
+awaitFile() {
+  local pid exitCode=0
+  wait -n -p pid "${!RUNNING_FILES[@]}" || exitCode="${?}"
+  local file="${RUNNING_FILES["${pid}"]}"
+  unset "RUNNING_FILES[${pid}]"
+  if (( exitCode != 0 )); then
+    echo -e "${ERROR} ${file} failed with exit code ${exitCode}"
+    kill "${!RUNNING_FILES[@]}" 2> /dev/null || true
+    exit "${exitCode}"
+  fi
+  echo -e "${INFO} Finished ${file}"
+  FINISHED_FILES["$(basename "${file}")"]="${pid}"
+}
+
+headerValues() {
+  local file="${1}"
+  local header="${2}"
+  sed -n "s/^${header}//p" "${file}" | xargs
+}
+
+# HASHES THE SCRIPT, THE IMAGE VERSIONS AND THE DECLARED INPUTS
+fingerprint() {
+  local file="${1}"
+  local inputs templateDirs
+  read -r -a inputs <<< "$(headerValues "${file}" "${INPUTS}")"
+  read -r -a templateDirs <<< "$(headerValues "${file}" "${TEMPLATES}")"
+  {
+    sha256sum "${file}"
+    cat "/etc/versions/"*.version
+    shopt -s nullglob
+    for input in "${inputs[@]}"; do
+      local paths=( ${input/#\~/${USER_HOME}} )
+      (( ${#paths[@]} > 0 )) || echo "${input} missing"
+      for path in "${paths[@]}"; do
+        if [[ "${path}" == "${USER_HOME}/"* ]]; then
+          homeState "${path}"
+        else
+          contentState "${path}"
+        fi
+      done
+    done
+    shopt -u nullglob
+    for templateDir in "${templateDirs[@]}"; do
+      contentState "${templateDir}"
+      find "${templateDir}" -mindepth 1 -printf "%P\n" | sort | while IFS= read -r path; do
+        homeState "${USER_HOME}/${path}"
+      done
+    done
+  } | sha256sum | awk '{print $1}'
+}
+
+# THE USER HOME CAN BE LARGE, SO ONLY THE METADATA OF ITS PATHS IS HASHED
+homeState() {
+  local path="${1}"
+  if [[ -d "${path}" && ! -L "${path}" ]]; then
+    echo "${path} directory"
+  elif [[ -e "${path}" || -L "${path}" ]]; then
+    stat -c "%n %F %s %Y %N" "${path}"
+  else
+    echo "${path} missing"
+  fi
+}
+
+contentState() {
+  local path="${1}"
+  if [[ -d "${path}" ]]; then
+    find "${path}" -printf "%P %y %l\n" | sort
+    find "${path}" -type f -print0 | sort -z | xargs -0 --no-run-if-empty sha256sum
+  elif [[ -e "${path}" ]]; then
+    sha256sum "${path}"
+  else
+    echo "${path} missing"
+  fi
+}
+
+saveDockerEnv() {
+  mkdir --parents "$(dirname "${DOCKER_ENV_FILE}")"
+  ( umask 077 && printenv --null > "${DOCKER_ENV_FILE}" )
+}
+
+loadDockerEnv() {
+  if [[ -r "${DOCKER_ENV_FILE}" ]]; then
+    while IFS= read -r -d "" variable; do
+      # SKIPS EXPORTED FUNCTIONS AND OTHER ENTRIES THAT ARE NOT VALID VARIABLE NAMES
+      if [[ "${variable%%=*}" =~ ^[A-Za-z_][A-Za-z0-9_]*$ ]]; then
+        export "${variable}"
+      fi
+    done < "${DOCKER_ENV_FILE}"
+  fi
+}
+
+followJournal() {
+  local priority="${JDVM_LOG_PRIORITY:-${DEFAULT_LOG_PRIORITY}}"
+  local rateLimit="${JDVM_LOG_RATE_LIMIT:-${DEFAULT_LOG_RATE_LIMIT}}"
+  local units=()
+  for unit in ${JDVM_LOG_UNITS:-}; do
+    units+=( "--unit" "${unit}" )
+  done
+  # WITH-UNIT LINES: <WEEKDAY> <DATE> <TIME> <TIMEZONE> <UNIT>[<PID>]: <MESSAGE>
+  # EMPTY LINES ARE TICKS, WHICH REPORT THE MESSAGES SUPPRESSED FROM UNITS THAT WENT SILENT
+  {
+    journalctl --boot --follow --no-tail --all --quiet --no-hostname --output with-unit \
+      --priority "${priority}" "${units[@]}" &
+    while kill -0 "${!}" 2> /dev/null && sleep 1; do
+      echo
+    done
+    wait "${!}"
+  } | awk -v rateLimit="${rateLimit}" '
+      function report(unit) {
+        if (suppressed[unit] > 0) {
+          printf "%s %s: Suppressed %d messages\n", timestamps[unit], unit, suppressed[unit]
+          suppressed[unit] = 0
+        }
+      }
+      NF == 0 {
+        for (unit in suppressed) {
+          report(unit)
+        }
+        fflush()
+        next
+      }
+      {
+        unit = $5
+        sub(/(\[[0-9]+\])?:$/, "", unit)
+        second = $2 " " $3
+        if (seconds[unit] != second) {
+          report(unit)
+          seconds[unit] = second
+          counts[unit] = 0
+        }
+        timestamps[unit] = $1 " " $2 " " $3 " " $4
+        if (rateLimit == 0 || ++counts[unit] <= rateLimit) {
+          print
+        } else {
+          suppressed[unit]++
+        }
+        fflush()
+      }'
 }
 
 startSystemd() {
   step "Start systemd"
   echo -e "${INFO} Executing systemd"
+  rm -f "${JOURNAL_FIFO}"
+  mkfifo --mode 600 "${JOURNAL_FIFO}"
+  # OPENING THE FIFO BLOCKS UNTIL JDVM-JOURNAL.SERVICE STARTS WRITING, SO THERE IS NO POLLING
   (
-    until ! journalctl 2>&1 | grep -q "No journal files were found"; do
-      sleep 0.5
+    while [[ -p "${JOURNAL_FIFO}" ]]; do
+      cat "${JOURNAL_FIFO}" || break
     done
-    sleep 0.5
-    journalctl --follow --no-tail
   ) &
   echo -e "${SUCCESS} Happy coding! ;)"
   exec /usr/lib/systemd/systemd
@@ -23,6 +23,12 @@ set IMAGE_VERSION=latest-ea
 set IMAGE_NAME=jdvm
 set IMAGE_NAMESPACE=jdheim
 set CONTAINER_NAME=%IMAGE_NAME%
+@REM SET JDVM_SHARED_ARTIFACTS=true TO SHARE THE RELEASED MAVEN AND GRADLE ARTIFACTS BETWEEN CONTAINERS
+set SHARED_ARTIFACTS_MOUNT=
+if /i "%JDVM_SHARED_ARTIFACTS%"=="true" set SHARED_ARTIFACTS_MOUNT=--mount source=jdvm-artifacts,target=/mnt/jdvm-artifacts
+@REM SET JDVM_PROXY=true TO CACHE MAVEN CENTRAL, THE NPM REGISTRY AND PYPI IN THE CONTAINER
+set PROXY_MOUNT=
+if /i "%JDVM_PROXY%"=="true" set PROXY_MOUNT=--mount source=jdvm-proxy,target=/var/cache/jdvm-proxy
 
 echo Stopping %CONTAINER_NAME%...
 docker container stop "%CONTAINER_NAME%" > nul 2>&1
@@ -40,6 +46,8 @@ docker container run --privileged -d ^
     -p 80:80 -p 443:443 ^
     --mount source=projects,target=/home/dev/projects ^
     --mount source=maven,target=/home/dev/.m2/repository ^
+    %SHARED_ARTIFACTS_MOUNT% ^
+    %PROXY_MOUNT% ^
     --mount source=home,target=/home/dev ^
     --mount source=docker,target=/var/lib/docker ^
     --mount type=bind,source="%USERPROFILE%/shared",target=/mnt/shared ^
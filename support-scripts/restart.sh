@@ -25,6 +25,10 @@ readonly IMAGE_VERSION="latest-ea"
 readonly IMAGE_NAME="jdvm"
 readonly IMAGE_NAMESPACE="jdheim"
 readonly CONTAINER_NAME="${IMAGE_NAME}"
+# SET JDVM_SHARED_ARTIFACTS=true TO SHARE THE RELEASED MAVEN AND GRADLE ARTIFACTS BETWEEN CONTAINERS
+readonly SHARED_ARTIFACTS="${JDVM_SHARED_ARTIFACTS:-false}"
+# SET JDVM_PROXY=true TO CACHE MAVEN CENTRAL, THE NPM REGISTRY AND PYPI IN THE CONTAINER
+readonly PROXY="${JDVM_PROXY:-false}"
 
 readonly STEP="[\e[1;96mSTEP\e[0m]"
 readonly LINE="\e[1;96m-----\e[0m"
@@ -62,6 +66,17 @@ main() {
   echo -e "${INFO} Allow connections to X11: adding non-network local connections to access control list..."
   xhost +local:docker >/dev/null
 
+  local sharedArtifactsMount=()
+  if [[ "${SHARED_ARTIFACTS}" == "true" ]]; then
+    echo -e "${INFO} Using the shared artifact cache: jdvm-artifacts volume..."
+    sharedArtifactsMount=( --mount source=jdvm-artifacts,target=/mnt/jdvm-artifacts )
+  fi
+  local proxyMount=()
+  if [[ "${PROXY}" == "true" ]]; then
+    echo -e "${INFO} Using the caching proxy: jdvm-proxy volume..."
+    proxyMount=( --mount source=jdvm-proxy,target=/var/cache/jdvm-proxy )
+  fi
+
   echo -e "${INFO} Starting ${IMAGE_NAMESPACE}/${IMAGE_NAME}:${IMAGE_VERSION}..."
   docker container run --privileged -d \
     --name "${CONTAINER_NAME}" \
@@ -69,6 +84,8 @@ main() {
     -p 80:80 -p 443:443 \
     --mount source=projects,target=/home/dev/projects \
     --mount source=maven,target=/home/dev/.m2/repository \
+    "${sharedArtifactsMount[@]}" \
+    "${proxyMount[@]}" \
     --mount source=home,target=/home/dev \
     --mount source=docker,target=/var/lib/docker \
     --mount type=bind,source="${HOME}/shared",target=/mnt/shared \
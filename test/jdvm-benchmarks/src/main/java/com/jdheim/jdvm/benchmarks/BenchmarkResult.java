@@ -0,0 +1,59 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.benchmarks;
+
+import static com.jdheim.jdvm.testcontainers.json.Json.quote;
+
+import java.util.List;
+
+/**
+ * Latency statistics of a benchmark in microseconds.
+ */
+record BenchmarkResult(String name, String command, List<Long> samples, long min, long p50, long p90, long p99, long max,
+                       double mean) {
+
+    /**
+     * Computes the statistics of the samples, using the nearest-rank percentiles.
+     */
+    static BenchmarkResult of(JDVMBenchmarks.Benchmark benchmark, List<Long> samples) {
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("No samples for: " + benchmark.name());
+        }
+        List<Long> sorted = samples.stream().sorted().toList();
+        return new BenchmarkResult(benchmark.name(), benchmark.command(), samples, sorted.getFirst(), percentile(sorted, 50),
+                percentile(sorted, 90), percentile(sorted, 99), sorted.getLast(),
+                sorted.stream().mapToLong(Long::longValue).average().orElseThrow());
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(rank, 1) - 1);
+    }
+
+    String toJson() {
+        return ("    { \"name\": %s, \"command\": %s, \"min\": %d, \"p50\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d,"
+                + " \"mean\": %d, \"samples\": %s }").formatted(quote(name), quote(command), min, p50, p90, p99, max,
+                Math.round(mean), samples);
+    }
+
+    @Override
+    public String toString() {
+        return "%-22s p50 %8.1f ms | p90 %8.1f ms | p99 %8.1f ms | min %8.1f ms | max %8.1f ms".formatted(name, p50 / 1000.0,
+                p90 / 1000.0, p99 / 1000.0, min / 1000.0, max / 1000.0);
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.benchmarks;
+
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.HOSTNAME;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_USER;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
+import static com.jdheim.jdvm.testcontainers.json.Json.quote;
+import static com.jdheim.jdvm.testcontainers.property.FileProperties.MAVEN;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import com.github.dockerjava.api.model.Volume;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.ExecConfig;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.shaded.org.apache.commons.lang3.StringUtils;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * Measures the latency of the operations developers run constantly inside the JDVM image.
+ *
+ * <p>Every benchmark is sampled inside the container by {@code jdvm-benchmark.zsh}, so the Docker exec overhead is not
+ * part of the results. The runner is executed directly, not by an interactive shell, so its stdout holds only the samples.
+ * The warmup and measurement iterations are set with {@code -Djdvm.benchmark.warmup}
+ * and {@code -Djdvm.benchmark.iterations}. The percentiles are printed and written to {@code target/benchmarks.json}.</p>
+ */
+public final class JDVMBenchmarks {
+
+    private static final String RUNNER = "/tmp/jdvm-benchmark.zsh";
+
+    private static final String GIT_REPOSITORY = "/tmp/jdvm-benchmark-repository";
+
+    private static final String GIT_REPOSITORY_SETUP = "rm -rf -- \"%1$s\" && git init -q \"%1$s\"".formatted(GIT_REPOSITORY);
+
+    private static final String JDK_LTS = "/opt/java/%s-%s/bin/java".formatted(MAVEN.getProperty("jdk-lts.version"),
+            MAVEN.getProperty("jdk.distribution"));
+
+    private static final String JDK_STS = "/opt/java/%s-%s/bin/java".formatted(MAVEN.getProperty("jdk-sts.version"),
+            MAVEN.getProperty("jdk.distribution"));
+
+    private static final List<Benchmark> BENCHMARKS = List.of(
+            new Benchmark("zsh startup", "", "zsh -i -c exit"),
+            new Benchmark("bash startup", "", "bash -i -c exit"),
+            new Benchmark("sdk init", "", "( source \"${HOME}/.sdkman/bin/sdkman-init.sh\" )"),
+            new Benchmark("git status", GIT_REPOSITORY_SETUP, "git -C \"%s\" status".formatted(GIT_REPOSITORY)),
+            new Benchmark("gitstatusd query",
+                    GIT_REPOSITORY_SETUP + " && source /opt/oh-my-zsh/themes/powerlevel10k/gitstatus/gitstatus.plugin.zsh"
+                            + " && gitstatus_start JDVM_BENCHMARK",
+                    "gitstatus_query -d \"%s\" JDVM_BENCHMARK".formatted(GIT_REPOSITORY)),
+            new Benchmark("mvn -v", "", "mvn -v"),
+            new Benchmark("java -version (LTS)", "", JDK_LTS + " -version"),
+            new Benchmark("java -version (STS)", "", JDK_STS + " -version"),
+            new Benchmark("jdvm-versions", "", "jdvm-versions"));
+
+    private JDVMBenchmarks() {
+        throw new AssertionError();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int warmup = Integer.parseInt(MAVEN.getProperty("jdvm.benchmark.warmup"));
+        int iterations = Integer.parseInt(MAVEN.getProperty("jdvm.benchmark.iterations"));
+        List<BenchmarkResult> results = new ArrayList<>();
+        try (GenericContainer<?> jdvm = createJDVM()) {
+            jdvm.start();
+            jdvm.copyFileToContainer(MountableFile.forClasspathResource("jdvm-benchmark.zsh", 0755), RUNNER);
+            for (Benchmark benchmark : BENCHMARKS) {
+                BenchmarkResult result = BenchmarkResult.of(benchmark, sample(jdvm, benchmark, warmup, iterations));
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        write(warmup, iterations, results);
+    }
+
+    /**
+     * Runs the benchmark with the runner zsh and returns its samples.
+     */
+    private static List<Long> sample(GenericContainer<?> jdvm, Benchmark benchmark, int warmup, int iterations)
+            throws IOException, InterruptedException {
+        ExecConfig execConfig = ExecConfig.builder().user(IMAGE_USER).workDir(USER_HOME).command(new String[]{
+                "zsh", RUNNER, String.valueOf(warmup), String.valueOf(iterations), benchmark.setup(), benchmark.command()
+        }).build();
+        Container.ExecResult execResult = jdvm.execInContainer(execConfig);
+        if (execResult.getExitCode() != 0) {
+            throw new IllegalStateException("Benchmark %s failed: %s".formatted(benchmark.name(), execResult.getStderr()));
+        }
+        return execResult.getStdout().lines().map(Long::parseLong).toList();
+    }
+
+    @SuppressWarnings("resource")
+    private static GenericContainer<?> createJDVM() {
+        return new GenericContainer<>(DockerImageName.parse(IMAGE_TAG)).withPrivilegedMode(true)
+                .withCreateContainerCmdModifier(cmd -> cmd.withHostName(HOSTNAME).withVolumes(new Volume("/var/lib/docker")))
+                .withEnv("PULSE_SERVER", StringUtils.EMPTY)
+                .withEnv("DISPLAY", StringUtils.EMPTY)
+                .withEnv("WAYLAND_DISPLAY", StringUtils.EMPTY)
+                .waitingFor(Wait.forHealthcheck().withStartupTimeout(Duration.ofSeconds(5 * 60)));
+    }
+
+    private static void write(int warmup, int iterations, List<BenchmarkResult> results) throws IOException {
+        String json = "{\n"
+                + "  \"image\": %s,\n".formatted(quote(IMAGE_TAG))
+                + "  \"unit\": \"us\",\n"
+                + "  \"warmup\": %d,\n".formatted(warmup)
+                + "  \"iterations\": %d,\n".formatted(iterations)
+                + results.stream().map(BenchmarkResult::toJson)
+                        .collect(Collectors.joining(",\n", "  \"benchmarks\": [\n", "\n  ]\n"))
+                + "}\n";
+        Path target = Path.of("target");
+        Files.createDirectories(target);
+        Files.writeString(target.resolve("benchmarks.json"), json);
+    }
+
+    /**
+     * A command to benchmark and its setup, both evaluated by the runner zsh.
+     */
+    record Benchmark(String name, String setup, String command) {
+
+    }
+
+}
@@ -18,6 +18,8 @@ package com.jdheim.jdvm.testcontainers.constant;
 
 import static com.jdheim.jdvm.testcontainers.property.FileProperties.MAVEN;
 
+import java.util.Objects;
+
 /**
  * Common constants for Tests
  */
@@ -36,6 +38,13 @@ public final class TestConstants {
     /** User Home directory */
     public static final String USER_HOME = "/home/" + IMAGE_USER;
 
+    /** Number of lazily started JDVM containers shared by the Test classes, 1 unless set by the module */
+    public static final int CONTAINER_POOL_SIZE = Integer.parseInt(
+            Objects.requireNonNullElse(MAVEN.getProperty("jdvm.pool.size"), "1"));
+
+    /** Whether the JDVM containers are kept running and reused by subsequent Test runs */
+    public static final boolean CONTAINER_POOL_REUSE = Boolean.parseBoolean(MAVEN.getProperty("jdvm.pool.reuse"));
+
     private TestConstants() {
         throw new AssertionError();
     }
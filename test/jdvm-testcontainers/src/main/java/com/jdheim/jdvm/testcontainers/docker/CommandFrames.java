@@ -0,0 +1,85 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.docker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A utility class for framing several shell commands within a single shell process.
+ *
+ * <p>Every command is passed Base64 encoded, evaluated in a subshell with its stdout and stderr captured,
+ * and reported back as a single stdout line: {@code <marker> <exit code> <base64 stdout> <base64 stderr>}.
+ * Lines without the marker (e.g. printed by the shell startup files) are ignored.</p>
+ */
+final class CommandFrames {
+
+    private CommandFrames() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates a unique marker for the frames of a single shell process.
+     */
+    static String newMarker() {
+        return "jdvm-frame-" + UUID.randomUUID();
+    }
+
+    /**
+     * Encodes the command, so it can be safely passed to the shell as a single line or within single quotes.
+     */
+    static String encode(String command) {
+        return Base64.getEncoder().encodeToString(command.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a bash and zsh compatible snippet that runs the encoded command and prints its frame.
+     * The encoded command is a shell word: a single-quoted result of {@link #encode(String)} or a quoted variable expansion.
+     */
+    static String wrap(String marker, String encodedCommand) {
+        return """
+                __jdvm_frame_dir="$(mktemp -d)"
+                ( eval "$(printf '%%s' %s | base64 -d)" ) > "${__jdvm_frame_dir}/stdout" 2> "${__jdvm_frame_dir}/stderr" < /dev/null
+                __jdvm_frame_exit_code=$?
+                printf '%%s %%s %%s %%s\\n' '%s' "${__jdvm_frame_exit_code}" \\
+                  "$(base64 -w 0 "${__jdvm_frame_dir}/stdout")" "$(base64 -w 0 "${__jdvm_frame_dir}/stderr")"
+                rm -rf -- "${__jdvm_frame_dir}"
+                """.formatted(encodedCommand, marker);
+    }
+
+    /**
+     * Parses the frame of the command if the line starts with the marker.
+     */
+    static Optional<DockerExecutor.CommandResult> parse(String marker, String command, String line) {
+        if (!line.startsWith(marker + " ")) {
+            return Optional.empty();
+        }
+        String[] parts = line.split(" ", -1);
+        if (parts.length != 4) {
+            throw new IllegalStateException("Malformed frame: " + line);
+        }
+        return Optional.of(new DockerExecutor.CommandResult(command, Integer.parseInt(parts[1]), decode(parts[2]).trim(),
+                decode(parts[3])));
+    }
+
+    private static String decode(String encoded) {
+        return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+
+}
@@ -21,7 +21,11 @@ import static com.jdheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import org.assertj.core.api.AbstractIntegerAssert;
 import org.testcontainers.containers.Container;
 import org.testcontainers.containers.ExecConfig;
@@ -40,9 +44,28 @@ public final class DockerExecutor {
 
     /**
      * Initializes the execution of a shell command within the specified container.
+     * Every execution starts a new shell inside the container.
      */
     public static CommandStep in(GenericContainer<?> container) {
-        return new Steps(container);
+        return new Steps(container, Steps.DEFAULT_SHELL, false);
+    }
+
+    /**
+     * Initializes the execution of a shell command within the long-lived shell sessions of the specified container.
+     * The sessions are pooled per shell, started on first use and reused by subsequent executions,
+     * so the shell startup files are sourced only once per session. The specified shell is used by default.
+     */
+    public static CommandStep session(GenericContainer<?> container, ExecStep.Shell shell) {
+        Objects.requireNonNull(shell, "Shell cannot be null");
+        return new Steps(container, shell, true);
+    }
+
+    /**
+     * Closes the long-lived shell sessions of the specified container, so subsequent executions start new sessions
+     * which source the shell startup files again, e.g. after the user home has been restored or reinitialized.
+     */
+    public static void closeSessions(GenericContainer<?> container) throws IOException {
+        ShellSession.closeAll(container);
     }
 
     /**
@@ -55,18 +78,32 @@ public final class DockerExecutor {
 
         private final GenericContainer<?> container;
 
+        private final Shell defaultShell;
+
+        private final boolean useSession;
+
         private String command;
 
         private boolean shouldCheckExitCode;
 
         private boolean shouldFail;
 
-        private Steps(GenericContainer<?> container) {
+        private Steps(GenericContainer<?> container, Shell defaultShell, boolean useSession) {
             this.container = container;
+            this.defaultShell = defaultShell;
+            this.useSession = useSession;
             shouldCheckExitCode = true;
             shouldFail = false;
         }
 
+        /**
+         * Starts queueing commands to be executed together inside the container.
+         */
+        @Override
+        public BatchStep batch() {
+            return new BatchSteps(container, defaultShell, useSession);
+        }
+
         /**
          * Sets the command to display the contents of the specified file.
          */
@@ -116,6 +153,17 @@ public final class DockerExecutor {
             return this;
         }
 
+        /**
+         * Sets the command to profile the startup of the specified interactive shell inside the container.
+         * The command uses `jdvm-profile-shell` to display the files (and zsh functions) ranked by their source time.
+         */
+        @Override
+        public ExecStep shellStartupProfile(Shell shell) {
+            Objects.requireNonNull(shell, "Shell cannot be null");
+            command = "jdvm-profile-shell " + shell.toString().toLowerCase();
+            return this;
+        }
+
         /**
          * Sets the command to retrieve the symlink path of the specified symlink inside the container.
          * The command will use the syntax `readlink <symlink>` to search for the symlink's location.
@@ -128,12 +176,12 @@ public final class DockerExecutor {
 
         /**
          * Executes the previously defined shell command inside a container.
-         * The command is executed using the bash shell and working directory.
+         * The command is executed using the default shell and working directory.
          * Ensures that the command exits with a zero exit code; otherwise, an assertion error is thrown.
          */
         @Override
         public String exec() throws IOException, InterruptedException {
-            return exec(DEFAULT_SHELL);
+            return exec(defaultShell);
         }
 
         /**
@@ -144,12 +192,9 @@ public final class DockerExecutor {
         @Override
         public String exec(Shell shell) throws IOException, InterruptedException {
             Objects.requireNonNull(shell, "Shell cannot be null");
-            ExecConfig execConfig = ExecConfig.builder().user(IMAGE_USER).workDir(USER_HOME).command(new String[]{
-                    shell.toString().toLowerCase(), "-i", "-c", command
-            }).build();
-            Container.ExecResult execResult = container.execInContainer(execConfig);
-            AbstractIntegerAssert<?> assertThatExitCode = assertThat(execResult.getExitCode()).as("\n%s%s",
-                    execResult.getStdout(), execResult.getStderr());
+            CommandResult commandResult = useSession ? ShellSession.execute(container, shell, command) : execInContainer(shell);
+            AbstractIntegerAssert<?> assertThatExitCode = assertThat(commandResult.exitCode()).as("\n%s%s",
+                    commandResult.stdout(), commandResult.stderr());
             if (shouldCheckExitCode) {
                 if (shouldFail) {
                     assertThatExitCode.isNotZero();
@@ -157,12 +202,23 @@ public final class DockerExecutor {
                 }
                 assertThatExitCode.isZero();
             }
-            return execResult.getStdout().trim();
+            return commandResult.stdout();
+        }
+
+        /**
+         * Executes the previously defined shell command in a new interactive shell inside a container.
+         */
+        private CommandResult execInContainer(Shell shell) throws IOException, InterruptedException {
+            ExecConfig execConfig = ExecConfig.builder().user(IMAGE_USER).workDir(USER_HOME).command(new String[]{
+                    shell.toString().toLowerCase(), "-i", "-c", command
+            }).build();
+            Container.ExecResult execResult = container.execInContainer(execConfig);
+            return new CommandResult(command, execResult.getExitCode(), execResult.getStdout().trim(), execResult.getStderr());
         }
 
         /**
          * Executes the previously defined shell command inside a container.
-         * The command is executed using the bash shell and working directory.
+         * The command is executed using the default shell and working directory.
          * Ensures that the command exits with a non-zero exit code; otherwise, an assertion error is thrown.
          */
         @Override
@@ -184,7 +240,7 @@ public final class DockerExecutor {
 
         /**
          * Executes the previously defined shell command inside a container.
-         * The command is executed using the bash shell and working directory.
+         * The command is executed using the default shell and working directory.
          * Does not check command exit code.
          */
         @Override
@@ -206,11 +262,156 @@ public final class DockerExecutor {
 
     }
 
+    /**
+     * A class that implements the steps to execute queued shell commands inside a running container.
+     * All queued commands are executed within a single exec (or within the shell session) and a single shell startup,
+     * while their stdout, stderr and exit codes are reported back separately.
+     */
+    private static class BatchSteps implements BatchStep {
+
+        private final GenericContainer<?> container;
+
+        private final ExecStep.Shell defaultShell;
+
+        private final boolean useSession;
+
+        private final List<String> commands;
+
+        private BatchSteps(GenericContainer<?> container, ExecStep.Shell defaultShell, boolean useSession) {
+            this.container = container;
+            this.defaultShell = defaultShell;
+            this.useSession = useSession;
+            commands = new ArrayList<>();
+        }
+
+        @Override
+        public BatchStep cat(String path) {
+            return add(steps -> steps.cat(path));
+        }
+
+        @Override
+        public BatchStep executablePath(String executable) {
+            return add(steps -> steps.executablePath(executable));
+        }
+
+        @Override
+        public BatchStep ls(String path) {
+            return add(steps -> steps.ls(path));
+        }
+
+        @Override
+        public BatchStep printenv(String envVariable) {
+            return add(steps -> steps.printenv(envVariable));
+        }
+
+        @Override
+        public BatchStep run(String command) {
+            return add(steps -> steps.run(command));
+        }
+
+        @Override
+        public BatchStep shellStartupProfile(ExecStep.Shell shell) {
+            return add(steps -> steps.shellStartupProfile(shell));
+        }
+
+        @Override
+        public BatchStep symlinkPath(String symlink) {
+            return add(steps -> steps.symlinkPath(symlink));
+        }
+
+        /**
+         * Queues the command defined the same way as for a single execution.
+         */
+        private BatchStep add(Consumer<CommandStep> commandDefinition) {
+            Steps steps = new Steps(container, defaultShell, useSession);
+            commandDefinition.accept(steps);
+            commands.add(steps.command);
+            return this;
+        }
+
+        /**
+         * Executes the queued shell commands inside a container.
+         * The commands are executed using the default shell and working directory.
+         * Ensures that every command exits with a zero exit code; otherwise, an assertion error is thrown.
+         */
+        @Override
+        public List<CommandResult> exec() throws IOException, InterruptedException {
+            return exec(defaultShell);
+        }
+
+        /**
+         * Executes the queued shell commands inside a container.
+         * The commands are executed using the defined shell and working directory.
+         * Ensures that every command exits with a zero exit code; otherwise, an assertion error is thrown.
+         */
+        @Override
+        public List<CommandResult> exec(ExecStep.Shell shell) throws IOException, InterruptedException {
+            List<CommandResult> commandResults = justExec(shell);
+            for (CommandResult commandResult : commandResults) {
+                assertThat(commandResult.exitCode()).as("\n%s\n%s%s", commandResult.command(), commandResult.stdout(),
+                        commandResult.stderr()).isZero();
+            }
+            return commandResults;
+        }
+
+        /**
+         * Executes the queued shell commands inside a container.
+         * The commands are executed using the default shell and working directory.
+         * Does not check commands exit codes.
+         */
+        @Override
+        public List<CommandResult> justExec() throws IOException, InterruptedException {
+            return justExec(defaultShell);
+        }
+
+        /**
+         * Executes the queued shell commands inside a container.
+         * The commands are executed using the defined shell and working directory.
+         * Does not check commands exit codes.
+         */
+        @Override
+        public List<CommandResult> justExec(ExecStep.Shell shell) throws IOException, InterruptedException {
+            Objects.requireNonNull(shell, "Shell cannot be null");
+            if (commands.isEmpty()) {
+                return List.of();
+            }
+            if (useSession) {
+                List<CommandResult> commandResults = new ArrayList<>();
+                for (String command : commands) {
+                    commandResults.add(ShellSession.execute(container, shell, command));
+                }
+                return commandResults;
+            }
+            String marker = CommandFrames.newMarker();
+            String script = commands.stream()
+                    .map(command -> CommandFrames.wrap(marker, "'" + CommandFrames.encode(command) + "'"))
+                    .collect(Collectors.joining());
+            ExecConfig execConfig = ExecConfig.builder().user(IMAGE_USER).workDir(USER_HOME).command(new String[]{
+                    shell.toString().toLowerCase(), "-i", "-c", script
+            }).build();
+            Container.ExecResult execResult = container.execInContainer(execConfig);
+            List<CommandResult> commandResults = new ArrayList<>();
+            for (String line : execResult.getStdout().split("\n")) {
+                if (commandResults.size() < commands.size()) {
+                    CommandFrames.parse(marker, commands.get(commandResults.size()), line).ifPresent(commandResults::add);
+                }
+            }
+            if (commandResults.size() != commands.size()) {
+                throw new IllegalStateException("Expected %d results, but got %d\n%s%s".formatted(commands.size(),
+                        commandResults.size(), execResult.getStdout(), execResult.getStderr()));
+            }
+            return commandResults;
+        }
+
+    }
+
     /**
      * Represents a step in a fluent API for defining commands to be executed inside a container.
      */
     public interface CommandStep {
 
+        BatchStep batch();
+
         ExecStep cat(String path);
 
         ExecStep executablePath(String executable);
@@ -221,6 +422,8 @@ public final class DockerExecutor {
 
         ExecStep run(String command);
 
+        ExecStep shellStartupProfile(ExecStep.Shell shell);
+
         ExecStep symlinkPath(String symlink);
 
     }
@@ -252,4 +455,41 @@ public final class DockerExecutor {
 
     }
 
+    /**
+     * Represents a step in a fluent API for queueing commands to be executed together inside a container.
+     */
+    public interface BatchStep {
+
+        BatchStep cat(String path);
+
+        BatchStep executablePath(String executable);
+
+        BatchStep ls(String path);
+
+        BatchStep printenv(String envVariable);
+
+        BatchStep run(String command);
+
+        BatchStep shellStartupProfile(ExecStep.Shell shell);
+
+        BatchStep symlinkPath(String symlink);
+
+        List<CommandResult> exec() throws IOException, InterruptedException;
+
+        List<CommandResult> exec(ExecStep.Shell shell) throws IOException, InterruptedException;
+
+        List<CommandResult> justExec() throws IOException, InterruptedException;
+
+        List<CommandResult> justExec(ExecStep.Shell shell) throws IOException, InterruptedException;
+
+    }
+
+    /**
+     * Represents the result of a single command executed inside a container.
+     * The stdout is trimmed the same way as the one returned by {@link ExecStep#exec()}.
+     */
+    public record CommandResult(String command, int exitCode, String stdout, String stderr) {
+
+    }
+
 }
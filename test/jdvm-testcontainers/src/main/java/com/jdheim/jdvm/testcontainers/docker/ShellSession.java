@@ -0,0 +1,257 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.docker;
+
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_USER;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.CommandResult;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.ExecStep.Shell;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * A long-lived interactive shell running inside a container.
+ *
+ * <p>The shells are pooled per container and shell type, and reused by subsequent commands, so the startup files are sourced
+ * only once per shell. A new shell is started only when all pooled ones are busy executing concurrent commands.
+ * Commands are written Base64 encoded to the shell stdin and their results are read back from the framed stdout lines,
+ * see {@link CommandFrames}. Every command is still evaluated in its own subshell, so it cannot change the session state.</p>
+ */
+final class ShellSession implements AutoCloseable {
+
+    private static final Map<String, Deque<ShellSession>> IDLE_SESSIONS = new ConcurrentHashMap<>();
+
+    private static final Duration COMMAND_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final String CLOSED = "";
+
+    private final String key;
+
+    private final String marker;
+
+    private final CommandInputStream stdin;
+
+    private final BlockingQueue<String> frames;
+
+    private final ResultCallback.Adapter<Frame> callback;
+
+    private volatile boolean alive;
+
+    private ShellSession(String key, GenericContainer<?> container, Shell shell) {
+        this.key = key;
+        marker = CommandFrames.newMarker();
+        stdin = new CommandInputStream();
+        frames = new LinkedBlockingQueue<>();
+        alive = true;
+        String loop = "while IFS= read -r __jdvm_command; do\n" + CommandFrames.wrap(marker, "\"${__jdvm_command}\"") + "done\n";
+        DockerClient dockerClient = container.getDockerClient();
+        String execId = dockerClient.execCreateCmd(container.getContainerId())
+                .withUser(IMAGE_USER)
+                .withWorkingDir(USER_HOME)
+                .withAttachStdin(true)
+                .withAttachStdout(true)
+                .withAttachStderr(true)
+                .withCmd(shell.toString().toLowerCase(), "-i", "-c", loop)
+                .exec()
+                .getId();
+        callback = dockerClient.execStartCmd(execId).withStdIn(stdin).exec(new FrameCallback());
+    }
+
+    /**
+     * Executes the command within an idle session of the shell inside the container and waits for its result.
+     * Starts a new session if there is no idle one.
+     */
+    static CommandResult execute(GenericContainer<?> container, Shell shell, String command)
+            throws IOException, InterruptedException {
+        String key = container.getContainerId() + "/" + shell;
+        Deque<ShellSession> idleSessions = IDLE_SESSIONS.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+        ShellSession session = idleSessions.pollFirst();
+        while (session != null && !session.alive) {
+            session = idleSessions.pollFirst();
+        }
+        if (session == null) {
+            session = new ShellSession(key, container, shell);
+        }
+        try {
+            return session.execute(command);
+        } finally {
+            if (session.alive) {
+                idleSessions.offerFirst(session);
+                if (IDLE_SESSIONS.get(key) != idleSessions && idleSessions.remove(session)) {
+                    session.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts and closes the idle sessions of the container. The sessions executing a command are closed once it is done.
+     */
+    static void closeAll(GenericContainer<?> container) throws IOException {
+        String keyPrefix = container.getContainerId() + "/";
+        for (String key : IDLE_SESSIONS.keySet()) {
+            Deque<ShellSession> idleSessions = key.startsWith(keyPrefix) ? IDLE_SESSIONS.remove(key) : null;
+            if (idleSessions == null) {
+                continue;
+            }
+            for (ShellSession session = idleSessions.pollFirst(); session != null; session = idleSessions.pollFirst()) {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * Executes the command within the session and waits for its result.
+     * Commands of a single session are executed one at a time.
+     */
+    private synchronized CommandResult execute(String command) throws IOException, InterruptedException {
+        if (!alive) {
+            throw new IOException("Shell session %s is closed".formatted(key));
+        }
+        stdin.write(CommandFrames.encode(command) + "\n");
+        String frame = frames.poll(COMMAND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        if (frame == null || CLOSED.equals(frame)) {
+            close();
+            throw new IOException("Shell session %s did not return the result of: %s".formatted(key, command));
+        }
+        return CommandFrames.parse(marker, command, frame).orElseThrow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        alive = false;
+        stdin.close();
+        callback.close();
+    }
+
+    /**
+     * Collects the stdout lines of the shell and passes on the frames.
+     */
+    private final class FrameCallback extends ResultCallback.Adapter<Frame> {
+
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        @Override
+        public void onNext(Frame frame) {
+            if (frame.getStreamType() != StreamType.STDOUT && frame.getStreamType() != StreamType.RAW) {
+                return;
+            }
+            for (byte b : frame.getPayload()) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                String stdoutLine = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                if (stdoutLine.startsWith(marker + " ")) {
+                    frames.add(stdoutLine);
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            end();
+            super.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            end();
+            super.onComplete();
+        }
+
+        private void end() {
+            alive = false;
+            frames.add(CLOSED);
+        }
+
+    }
+
+    /**
+     * The stdin of the shell. Unlike a piped stream, it can be written by any thread.
+     */
+    private static final class CommandInputStream extends InputStream {
+
+        private static final byte[] EOF = new byte[0];
+
+        private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+
+        private byte[] chunk = new byte[0];
+
+        private int position;
+
+        void write(String text) {
+            chunks.add(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (chunk == EOF) {
+                return -1;
+            }
+            if (position == chunk.length) {
+                try {
+                    chunk = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                position = 0;
+                if (chunk == EOF) {
+                    return -1;
+                }
+            }
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            chunks.add(EOF);
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.property;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.ExecStep.Shell;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Versions of the dependencies installed in a JDVM container.
+ *
+ * <p>The versions are loaded lazily from a single {@code jdvm-versions --json} execution per container,
+ * so they can be compared in memory against the expected versions from {@link FileProperties#MAVEN}.</p>
+ *
+ * <p>The dependency names are the ones displayed by {@code jdvm-versions}, e.g. "Java LTS" or "Docker Client".</p>
+ */
+public final class JDVMVersions {
+
+    private static final Map<String, JDVMVersions> VERSIONS = new ConcurrentHashMap<>();
+
+    private final Map<String, String> versions;
+
+    private JDVMVersions(Map<String, String> versions) {
+        this.versions = versions;
+    }
+
+    /**
+     * Returns the versions installed in the container, loading them on first use.
+     */
+    public static JDVMVersions of(GenericContainer<?> container) throws IOException {
+        try {
+            return VERSIONS.computeIfAbsent(container.getContainerId(), containerId -> load(container));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static JDVMVersions load(GenericContainer<?> container) {
+        try {
+            return new JDVMVersions(parse(DockerExecutor.session(container, Shell.BASH).run("jdvm-versions --json").exec()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses the flat JSON object of string values displayed by {@code jdvm-versions --json}.
+     */
+    private static Map<String, String> parse(String json) throws IOException {
+        JsonReader reader = new JsonReader(json);
+        Map<String, String> versions = new LinkedHashMap<>();
+        reader.expect('{');
+        if (!reader.skip('}')) {
+            do {
+                String dependency = reader.readString();
+                reader.expect(':');
+                versions.put(dependency, reader.readString());
+            } while (reader.skip(','));
+            reader.expect('}');
+        }
+        reader.expectEnd();
+        return versions;
+    }
+
+    /**
+     * Returns the version of the dependency, or {@code null} if the dependency is unknown to {@code jdvm-versions}.
+     * An empty version means that the dependency is not installed.
+     */
+    public String getVersion(String dependency) {
+        return versions.get(dependency);
+    }
+
+    /**
+     * Reads the JSON tokens of the versions, the values being strings only.
+     */
+    private static final class JsonReader {
+
+        private final String json;
+        private int position;
+
+        private JsonReader(String json) {
+            this.json = json;
+        }
+
+        private boolean skip(char expected) {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) throws IOException {
+            if (!skip(expected)) {
+                throw error("'" + expected + "' expected");
+            }
+        }
+
+        private void expectEnd() throws IOException {
+            skipWhitespace();
+            if (position < json.length()) {
+                throw error("End of the versions expected");
+            }
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c == '\\' && position < json.length()) {
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'u' -> value.append(readUnicode());
+                        default -> value.append(escaped);
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private char readUnicode() throws IOException {
+            if (position + 4 > json.length()) {
+                throw error("Unterminated unicode escape");
+            }
+            try {
+                char c = (char) Integer.parseInt(json, position, position + 4, 16);
+                position += 4;
+                return c;
+            } catch (NumberFormatException e) {
+                throw error("Invalid unicode escape");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IOException error(String message) {
+            return new IOException("%s at position %d of the versions: %s".formatted(message, position, json));
+        }
+
+    }
+
+}
@@ -22,18 +22,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
 import com.jdheim.jdvm.testcontainers.setup.JDVMContainer;
-import org.junit.jupiter.api.MethodOrderer;
+import com.jdheim.jdvm.testcontainers.setup.Mutating;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.TestMethodOrder;
 
 /**
  * Docker Entrypoint Tests
  */
-@TestMethodOrder(MethodOrderer.MethodName.class)
 class DockerEntrypointTest extends JDVMContainer {
 
     @Test
+    @Mutating
     void dockerEntrypointInitialization() throws IOException, InterruptedException {
+        getJDVMExecutor().run("rm -rf -- " + USER_HOME + "/.local/state/jdvm/docker-entrypoint.d").exec();
         String dockerEntrypointLog = runDockerEntrypoint();
         assertThat(dockerEntrypointLog).contains("[STEP] ----- Start initialization -----")
                 .contains("[INFO] Running /docker-entrypoint.d/01-setup-user-home.sh")
@@ -41,16 +41,124 @@ class DockerEntrypointTest extends JDVMContainer {
                 .contains("[INFO] Running /docker-entrypoint.d/03-sync-skeletal-user-templates.sh")
                 .contains("[INFO] Running /docker-entrypoint.d/04-sync-local-templates.sh")
                 .contains("[INFO] Running /docker-entrypoint.d/05-init-oh-my-zsh.sh")
-                .contains("[INFO] Running /docker-entrypoint.d/06-init-jmeter.sh")
+                .contains("[INFO] Running /docker-entrypoint.d/06-setup-jvm-defaults.sh")
                 .contains("[INFO] Running /docker-entrypoint.d/07-save-docker-env-variables.sh")
                 .doesNotContain("[INFO] Running /docker-entrypoint.d/08")
+                .contains("[INFO] Finished /docker-entrypoint.d/01-setup-user-home.sh")
+                .contains("[INFO] Finished /docker-entrypoint.d/07-save-docker-env-variables.sh")
                 .contains("[SUCCESS] Initialization complete")
                 .doesNotContain("[STEP] ----- Start systemd -----");
     }
 
     private String runDockerEntrypoint() throws IOException, InterruptedException {
-        getJDVMExecutor().run("sudo sed -i \"s/^  startSystemd/#&/\" \"/docker-entrypoint.d/docker-entrypoint.sh\"").exec();
-        return getJDVMExecutor().run("/docker-entrypoint.d/docker-entrypoint.sh").exec();
+        return getJDVMExecutor().run("/docker-entrypoint.d/docker-entrypoint.sh --init").exec();
+    }
+
+    @Test
+    @Mutating
+    void dockerEntrypointSkippedInitialization() throws IOException, InterruptedException {
+        runDockerEntrypoint();
+        String dockerEntrypointLog = runDockerEntrypoint();
+        assertThat(dockerEntrypointLog).contains("[04-sync-local-templates] Skipped, inputs unchanged since the last run")
+                .doesNotContain("[INFO] Running /docker-entrypoint.d/04-sync-local-templates.sh")
+                .doesNotContain("[INFO] Finished /docker-entrypoint.d/04-sync-local-templates.sh")
+                .contains("[SUCCESS] Initialization complete");
+    }
+
+    @Test
+    void testInitializationState() throws IOException, InterruptedException {
+        String stateDir = getJDVMExecutor().ls(USER_HOME + "/.local/state/jdvm/docker-entrypoint.d").exec();
+        assertThat(stateDir).contains("01-setup-user-home.sh.sha256")
+                .contains("04-sync-local-templates.sh.sha256")
+                .contains("06-setup-jvm-defaults.sh.sha256")
+                .contains("07-save-docker-env-variables.sh.sha256");
+    }
+
+    @Test
+    void testTemplatesManifests() throws IOException, InterruptedException {
+        String homeManifest = "--%s.manifest".formatted(USER_HOME.substring(1).replace('/', '-'));
+        String manifestsDir = getJDVMExecutor().ls(USER_HOME + "/.local/state/jdvm/templates").exec();
+        assertThat(manifestsDir).contains("etc-jdvm-templates-user" + homeManifest)
+                .contains("etc-skel" + homeManifest)
+                .contains("etc-jdvm-templates-local" + homeManifest);
+
+        String manifest = getJDVMExecutor().cat(
+                USER_HOME + "/.local/state/jdvm/templates/etc-jdvm-templates-user" + homeManifest).exec();
+        assertThat(manifest).containsPattern("(?m)^[0-9a-f]{64}\\t[0-9]+\\t\\.zshrc$");
+    }
+
+    @Test
+    void testTemplatesUpdate() throws IOException, InterruptedException {
+        String dir = createTemplates("/tmp/jdvm-templates-update", "a", "b");
+        getJDVMExecutor().run("echo changed > %s/templates/a".formatted(dir)).exec();
+
+        String syncLog = syncTemplates(dir, "");
+        assertThat(syncLog).contains("~ a").doesNotContain("~ b").contains("0 added, 1 updated, 0 removed, 1 skipped");
+
+        String target = getJDVMExecutor().cat(dir + "/target/a").exec();
+        assertThat(target).isEqualTo("changed");
+    }
+
+    @Test
+    void testTemplatesRemove() throws IOException, InterruptedException {
+        String dir = createTemplates("/tmp/jdvm-templates-remove", "a", "b");
+        getJDVMExecutor().run("rm %s/templates/b".formatted(dir)).exec();
+
+        String syncLog = syncTemplates(dir, "");
+        assertThat(syncLog).contains("- b").contains("0 added, 0 updated, 1 removed, 1 skipped");
+
+        String targetDir = getJDVMExecutor().ls(dir + "/target").exec();
+        assertThat(targetDir).isEqualTo("a");
+    }
+
+    @Test
+    void testTemplatesModifiedNotRemoved() throws IOException, InterruptedException {
+        String dir = createTemplates("/tmp/jdvm-templates-modified", "a", "b");
+        getJDVMExecutor().run("echo modified > %s/target/b".formatted(dir)).exec();
+        getJDVMExecutor().run("rm %s/templates/b".formatted(dir)).exec();
+
+        String syncLog = syncTemplates(dir, "");
+        assertThat(syncLog).doesNotContain("- b").contains("0 added, 0 updated, 0 removed, 1 skipped");
+
+        String target = getJDVMExecutor().cat(dir + "/target/b").exec();
+        assertThat(target).isEqualTo("modified");
+    }
+
+    @Test
+    void testTemplatesIgnoreExisting() throws IOException, InterruptedException {
+        String dir = createTemplates("/tmp/jdvm-templates-ignore-existing", "a");
+        getJDVMExecutor().run("echo modified > %s/target/a".formatted(dir)).exec();
+        getJDVMExecutor().run("echo changed > %s/templates/a".formatted(dir)).exec();
+        getJDVMExecutor().run("echo b > %s/templates/b".formatted(dir)).exec();
+
+        String syncLog = syncTemplates(dir, "--ignore-existing");
+        assertThat(syncLog).contains("+ b").doesNotContain("~ a").contains("1 added, 0 updated, 0 removed, 1 skipped");
+        assertThat(getJDVMExecutor().cat(dir + "/target/a").exec()).isEqualTo("modified");
+
+        getJDVMExecutor().run("rm %s/templates/a %s/templates/b".formatted(dir, dir)).exec();
+        syncLog = syncTemplates(dir, "--ignore-existing");
+        assertThat(syncLog).contains("0 added, 0 updated, 0 removed, 0 skipped");
+
+        String targetDir = getJDVMExecutor().ls(dir + "/target").exec();
+        assertThat(targetDir).contains("a", "b").hasLineCount(2);
+    }
+
+    private String createTemplates(String dir, String... files) throws IOException, InterruptedException {
+        getJDVMExecutor().run("rm -rf -- %s && mkdir -p %s/templates %s/target".formatted(dir, dir, dir)).exec();
+        for (String file : files) {
+            getJDVMExecutor().run("echo %s > %s/templates/%s".formatted(file, dir, file)).exec();
+        }
+        String syncLog = syncTemplates(dir, "");
+        assertThat(syncLog).contains("%d added, 0 updated, 0 removed, 0 skipped".formatted(files.length));
+        String manifestsDir = getJDVMExecutor().ls(dir + "/state/jdvm/templates").exec();
+        assertThat(manifestsDir).isEqualTo(
+                "%1$s-templates--%1$s-target.manifest".formatted(dir.substring(1).replace('/', '-')));
+        return dir;
+    }
+
+    private String syncTemplates(String dir, String options) throws IOException, InterruptedException {
+        return getJDVMExecutor().run("XDG_STATE_HOME=%2$s/state jdvm-sync-templates %1$s %2$s/templates %2$s/target".formatted(
+                options, dir)).exec();
     }
 
     @Test
@@ -60,7 +168,12 @@ class DockerEntrypointTest extends JDVMContainer {
     }
 
     @Test
+    @Mutating
     void testFirefox() throws IOException, InterruptedException {
+        getJDVMExecutor().run("jdvm-lazy-init firefox").exec();
+        String lazyInitStateDir = getJDVMExecutor().ls(USER_HOME + "/.local/state/jdvm/lazy-init").exec();
+        assertThat(lazyInitStateDir).contains("firefox.sha256");
+
         String firefoxProfile = getJDVMExecutor().run("ls \"%s/.mozilla/firefox\" | grep \"%s\"".formatted(USER_HOME, IMAGE_USER))
                 .exec();
         String firefoxProfilePath = "%s/.mozilla/firefox/%s".formatted(USER_HOME, firefoxProfile);
@@ -87,28 +200,25 @@ class DockerEntrypointTest extends JDVMContainer {
     }
 
     @Test
+    @Mutating
     void testGnomeSettingsBackup() throws IOException, InterruptedException {
         String dconfUserFile = USER_HOME + "/.config/dconf/user";
         getJDVMExecutor().run("rm -f -- " + dconfUserFile).exec();
         getJDVMExecutor().run("touch " + dconfUserFile).exec();
 
-        try {
-            String dockerEntrypointLog = runDockerEntrypoint();
-            assertThat(dockerEntrypointLog).contains("[SUCCESS] Initialization complete")
-                    .doesNotContain("[STEP] ----- Start systemd -----");
+        String dockerEntrypointLog = runDockerEntrypoint();
+        assertThat(dockerEntrypointLog).contains("[SUCCESS] Initialization complete")
+                .doesNotContain("[STEP] ----- Start systemd -----");
 
-            String dconfDir = getJDVMExecutor().ls(USER_HOME + "/.config/dconf").exec();
-            assertThat(dconfDir).contains("user", "user.bak").hasLineCount(2);
+        String dconfDir = getJDVMExecutor().ls(USER_HOME + "/.config/dconf").exec();
+        assertThat(dconfDir).contains("user", "user.bak").hasLineCount(2);
 
-            getJDVMExecutor().symlinkPath(dconfUserFile + ".bak").execShouldFail();
-            String dconfUserPath = getJDVMExecutor().symlinkPath(dconfUserFile).exec();
-            assertThat(dconfUserPath).isEqualTo("/etc/jdvm-templates/base/dconf/user");
+        getJDVMExecutor().symlinkPath(dconfUserFile + ".bak").execShouldFail();
+        String dconfUserPath = getJDVMExecutor().symlinkPath(dconfUserFile).exec();
+        assertThat(dconfUserPath).isEqualTo("/etc/jdvm-templates/base/dconf/user");
 
-            String baseDconfDir = getJDVMExecutor().ls("/etc/jdvm-templates/base/dconf").exec();
-            assertThat(baseDconfDir).isEqualTo("user");
-        } finally {
-            getJDVMExecutor().run("rm -r -- " + dconfUserFile + ".bak").exec();
-        }
+        String baseDconfDir = getJDVMExecutor().ls("/etc/jdvm-templates/base/dconf").exec();
+        assertThat(baseDconfDir).isEqualTo("user");
     }
 
     @Test
@@ -145,40 +255,37 @@ class DockerEntrypointTest extends JDVMContainer {
     }
 
     @Test
+    @Mutating
     void testKubectlKrewIndexBackup() throws IOException, InterruptedException {
         String krewIndexDir = USER_HOME + "/.krew/index";
         getJDVMExecutor().run("rm -rf -- " + krewIndexDir).exec();
         getJDVMExecutor().run("mkdir " + krewIndexDir).exec();
         getJDVMExecutor().run("touch " + krewIndexDir + "/test.txt").exec();
 
-        try {
-            String dockerEntrypointLog = runDockerEntrypoint();
-            assertThat(dockerEntrypointLog).contains("[SUCCESS] Initialization complete")
-                    .doesNotContain("[STEP] ----- Start systemd -----");
-
-            CharSequence[] dirs = new CharSequence[]{
-                    "bin", "index", "index.bak", "receipts", "store"
-            };
-            String krewDir = getJDVMExecutor().ls(USER_HOME + "/.krew").exec();
-            assertThat(krewDir).contains(dirs).hasLineCount(dirs.length);
-
-            for (CharSequence dir : dirs) {
-                String homeKrewDirSymlink = "%s/.krew/%s".formatted(USER_HOME, dir);
-                if ("index".contentEquals(dir)) {
-                    String homeKrewDirPath = getJDVMExecutor().symlinkPath(homeKrewDirSymlink).exec();
-                    assertThat(homeKrewDirPath).isEqualTo("/opt/krew/index");
+        String dockerEntrypointLog = runDockerEntrypoint();
+        assertThat(dockerEntrypointLog).contains("[SUCCESS] Initialization complete")
+                .doesNotContain("[STEP] ----- Start systemd -----");
+
+        CharSequence[] dirs = new CharSequence[]{
+                "bin", "index", "index.bak", "receipts", "store"
+        };
+        String krewDir = getJDVMExecutor().ls(USER_HOME + "/.krew").exec();
+        assertThat(krewDir).contains(dirs).hasLineCount(dirs.length);
+
+        for (CharSequence dir : dirs) {
+            String homeKrewDirSymlink = "%s/.krew/%s".formatted(USER_HOME, dir);
+            if ("index".contentEquals(dir)) {
+                String homeKrewDirPath = getJDVMExecutor().symlinkPath(homeKrewDirSymlink).exec();
+                assertThat(homeKrewDirPath).isEqualTo("/opt/krew/index");
+            } else {
+                getJDVMExecutor().symlinkPath(homeKrewDirSymlink).execShouldFail();
+                String homeKrewDirPath = getJDVMExecutor().ls(homeKrewDirSymlink).exec();
+                if ("index.bak".contentEquals(dir)) {
+                    assertThat(homeKrewDirPath).isEqualTo("test.txt");
                 } else {
-                    getJDVMExecutor().symlinkPath(homeKrewDirSymlink).execShouldFail();
-                    String homeKrewDirPath = getJDVMExecutor().ls(homeKrewDirSymlink).exec();
-                    if ("index.bak".contentEquals(dir)) {
-                        assertThat(homeKrewDirPath).isEqualTo("test.txt");
-                    } else {
-                        assertThat(homeKrewDirPath).isEmpty();
-                    }
+                    assertThat(homeKrewDirPath).isEmpty();
                 }
             }
-        } finally {
-            getJDVMExecutor().run("rm -rf -- " + krewIndexDir + ".bak").exec();
         }
     }
 
@@ -26,15 +26,13 @@ import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
 import java.io.IOException;
 import java.time.Year;
 import java.util.concurrent.TimeUnit;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.ExecStep.Shell;
 import com.jdheim.jdvm.testcontainers.setup.JDVMContainer;
-import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.TestMethodOrder;
 
 /**
  * JDVM General Tests
  */
-@TestMethodOrder(MethodOrderer.MethodName.class)
 class JDVMTest extends JDVMContainer {
 
     @Test
@@ -59,6 +57,74 @@ class JDVMTest extends JDVMContainer {
         assertThat(execMainStatus).isEqualTo("ExecMainStatus=0");
     }
 
+    @Test
+    void testJdvmDockerDaemonService() throws IOException, InterruptedException {
+        String isActive = getJDVMExecutor().run("systemctl is-active jdvm-docker-daemon.service").exec();
+        assertThat(isActive).isEqualTo("active");
+
+        String execMainStatus = getJDVMExecutor().run("systemctl show -p ExecMainStatus jdvm-docker-daemon.service").exec();
+        assertThat(execMainStatus).isEqualTo("ExecMainStatus=0");
+
+        String daemonConfig = getJDVMExecutor().run(
+                "jq -c '[.\"max-concurrent-downloads\", .\"max-concurrent-uploads\", .builder.gc.enabled]' /etc/docker/daemon.json")
+                .exec();
+        assertThat(daemonConfig).matches("\\[\\d+,\\d+,true]");
+    }
+
+    @Test
+    void testJdvmPreloadImagesService() throws IOException, InterruptedException {
+        await().atMost(60, TimeUnit.SECONDS).with().pollInterval(500, TimeUnit.MILLISECONDS).until(() -> {
+            String isActive = getJDVMExecutor().run("systemctl is-active jdvm-preload-images.service").justExec();
+            assertThat(isActive).isNotEmpty();
+            return "inactive".equals(isActive);
+        });
+
+        String execMainStatus = getJDVMExecutor().run("systemctl show -p ExecMainStatus jdvm-preload-images.service").exec();
+        assertThat(execMainStatus).isEqualTo("ExecMainStatus=0");
+
+        String[] preloadImages = MAVEN.getProperty("preload.images").split(" ");
+        String images = getJDVMExecutor().run("docker image ls --format \"{{.Repository}}:{{.Tag}}\"").exec();
+        assertThat(images).contains(preloadImages);
+    }
+
+    @Test
+    void testJdvmJournalService() throws IOException, InterruptedException {
+        String isActive = getJDVMExecutor().run("systemctl is-active jdvm-journal.service").exec();
+        assertThat(isActive).isEqualTo("active");
+
+        String subState = getJDVMExecutor().run("systemctl show -p SubState jdvm-journal.service").exec();
+        assertThat(subState).isEqualTo("SubState=running");
+
+        String journalFifo = getJDVMExecutor().run("sudo stat -c %F /var/lib/jdvm/journal.fifo").exec();
+        assertThat(journalFifo).isEqualTo("fifo");
+    }
+
+    @Test
+    void testFollowJournalRateLimit() throws IOException, InterruptedException {
+        getJDVMExecutor().run("sudo systemd-run --unit jdvm-burst --wait --collect --quiet "
+                + "sh -c 'for i in 1 2 3 4 5; do echo burst-$i; done'").exec();
+
+        String journal = getJDVMExecutor().run("sudo JDVM_USER=%s JDVM_LOG_RATE_LIMIT=1 JDVM_LOG_UNITS=jdvm-burst.service "
+                .formatted(IMAGE_USER) + "timeout 5 /docker-entrypoint.d/docker-entrypoint.sh --follow-journal").justExec();
+        assertThat(journal).contains("burst-1")
+                .containsPattern("jdvm-burst\\.service: Suppressed [0-9]+ messages");
+    }
+
+    @Test
+    void testJdvmInitService() throws IOException, InterruptedException {
+        String isActive = getJDVMExecutor().run("systemctl is-active jdvm-init.service").exec();
+        assertThat(isActive).isEqualTo("active");
+
+        String subState = getJDVMExecutor().run("systemctl show -p SubState jdvm-init.service").exec();
+        assertThat(subState).isEqualTo("SubState=exited");
+
+        String execMainStatus = getJDVMExecutor().run("systemctl show -p ExecMainStatus jdvm-init.service").exec();
+        assertThat(execMainStatus).isEqualTo("ExecMainStatus=0");
+
+        String initLog = getJDVMExecutor().run("sudo journalctl --boot --unit jdvm-init.service --output cat").exec();
+        assertThat(initLog).contains("Running /docker-entrypoint.d/01-setup-user-home.sh").contains("Initialization complete");
+    }
+
     @Test
     void testJdvmDBusSessionService() throws IOException, InterruptedException {
         String isActive = getJDVMExecutor().run("systemctl is-active jdvm-dbus-session.service").exec();
@@ -82,6 +148,143 @@ class JDVMTest extends JDVMContainer {
         assertThat(xdgRuntimeDir).contains("bus");
     }
 
+    @Test
+    void testJdvmArtifactsService() throws IOException, InterruptedException {
+        String conditionResult = getJDVMExecutor().run("systemctl show -p ConditionResult jdvm-artifacts.service").exec();
+        assertThat(conditionResult).isEqualTo("ConditionResult=no");
+
+        String artifactsDir = getJDVMExecutor().run("stat -c %U /mnt/jdvm-artifacts").exec();
+        assertThat(artifactsDir).isEqualTo(IMAGE_USER);
+
+        String execStartPre = getJDVMExecutor().run("systemctl show -p ExecStartPre jdvm-artifacts.service").exec();
+        assertThat(execStartPre).contains("/usr/local/bin/jdvm-artifacts init");
+    }
+
+    @Test
+    void testJdvmArtifactsPublishMaven() throws IOException, InterruptedException {
+        String testDir = createArtifactsTestDir("/tmp/jdvm-artifacts-maven");
+        String repository = testDir + "/home/.m2/repository/org/example";
+        getJDVMExecutor().run(("mkdir -p %1$s/example/1.0 %1$s/copy/1.0 %1$s/example/1.1-SNAPSHOT"
+                + " && echo example > %1$s/example/1.0/example-1.0.jar && echo example > %1$s/copy/1.0/copy-1.0.jar"
+                + " && echo snapshot > %1$s/example/1.1-SNAPSHOT/example-1.1-SNAPSHOT.jar"
+                + " && find %1$s -type f -exec touch -d '2 minutes ago' {} +").formatted(repository)).exec();
+
+        String publishLog = jdvmArtifacts(testDir, "publish");
+        assertThat(publishLog).contains("Published 2 Maven files to the shared artifact cache");
+
+        String userFiles = getJDVMExecutor().run("find %s -type f".formatted(repository)).exec();
+        assertThat(userFiles).isEqualTo(repository + "/example/1.1-SNAPSHOT/example-1.1-SNAPSHOT.jar");
+
+        String maven = testDir + "/store/maven/org/example";
+        getJDVMExecutor().run("[[ %1$s/example/1.0/example-1.0.jar -ef %1$s/copy/1.0/copy-1.0.jar ]]".formatted(maven)).exec();
+        String objects = getJDVMExecutor().run("find %s/store/objects -type f -links 3".formatted(testDir)).exec();
+        assertThat(objects).hasLineCount(1);
+
+        String status = jdvmArtifacts(testDir, "status");
+        assertThat(status).contains("Objects:        1").contains("Maven files:    2");
+    }
+
+    @Test
+    void testJdvmArtifactsPublishGradle() throws IOException, InterruptedException {
+        String testDir = createArtifactsTestDir("/tmp/jdvm-artifacts-gradle");
+        String cache = testDir + "/home/.gradle/caches/modules-2";
+        getJDVMExecutor().run(("mkdir -p %1$s/files-2.1/org.example && echo example > %1$s/files-2.1/org.example/example.jar"
+                + " && touch %1$s/modules-2.lock %1$s/gc.properties").formatted(cache)).exec();
+
+        String publishLog = jdvmArtifacts(testDir, "publish");
+        assertThat(publishLog).contains("Published Gradle cache snapshot snapshots/");
+        String current = getJDVMExecutor().run("readlink %s/store/gradle/current".formatted(testDir)).exec();
+        String snapshotFiles = getJDVMExecutor().run("find %s/store/gradle/current/ -type f".formatted(testDir)).exec();
+        assertThat(snapshotFiles).endsWith("/modules-2/files-2.1/org.example/example.jar").hasLineCount(1);
+
+        publishLog = jdvmArtifacts(testDir, "publish");
+        assertThat(publishLog).doesNotContain("Published Gradle cache snapshot");
+
+        getJDVMExecutor().run("sleep 1 && echo other > %s/files-2.1/org.example/other.jar".formatted(cache)).exec();
+        publishLog = jdvmArtifacts(testDir, "publish");
+        assertThat(publishLog).contains("Published Gradle cache snapshot snapshots/");
+        String switchedCurrent = getJDVMExecutor().run("readlink %s/store/gradle/current".formatted(testDir)).exec();
+        assertThat(switchedCurrent).startsWith("snapshots/").isNotEqualTo(current);
+
+        String snapshots = getJDVMExecutor().ls(testDir + "/store/gradle/snapshots").exec();
+        assertThat(snapshots).hasLineCount(2);
+    }
+
+    @Test
+    void testJdvmArtifactsGarbageCollection() throws IOException, InterruptedException {
+        String testDir = createArtifactsTestDir("/tmp/jdvm-artifacts-gc");
+        String artifact = "org/example/example/1.0/example-1.0.jar";
+        getJDVMExecutor().run(("mkdir -p $(dirname %1$s/home/.m2/repository/%2$s) && echo example > %1$s/home/.m2/repository/%2$s"
+                + " && touch -d '2 minutes ago' %1$s/home/.m2/repository/%2$s").formatted(testDir, artifact)).exec();
+        jdvmArtifacts(testDir, "publish");
+
+        getJDVMExecutor().run("rm %s/store/maven/%s".formatted(testDir, artifact)).exec();
+        String publishLog = jdvmArtifacts(testDir, "publish");
+        assertThat(publishLog).doesNotContain("unreferenced objects");
+
+        getJDVMExecutor().run("find %s/store/objects -type f -exec touch -d '2 hours ago' {} +".formatted(testDir)).exec();
+        publishLog = jdvmArtifacts(testDir, "publish");
+        assertThat(publishLog).contains("Removed 1 unreferenced objects from the shared artifact cache");
+
+        String objects = getJDVMExecutor().run("find %s/store/objects -type f".formatted(testDir)).exec();
+        assertThat(objects).isEmpty();
+    }
+
+    private String createArtifactsTestDir(String testDir) throws IOException, InterruptedException {
+        getJDVMExecutor().run("rm -rf -- %1$s && mkdir -p %1$s/store %1$s/home".formatted(testDir)).exec();
+        getJDVMExecutor().run(jdvmArtifactsCommand(testDir, "publish")).execShouldFail();
+        String initLog = jdvmArtifacts(testDir, "init");
+        assertThat(initLog).contains("Initialize shared artifact cache...");
+        return testDir;
+    }
+
+    private String jdvmArtifacts(String testDir, String command) throws IOException, InterruptedException {
+        return getJDVMExecutor().run(jdvmArtifactsCommand(testDir, command)).exec();
+    }
+
+    private String jdvmArtifactsCommand(String testDir, String command) {
+        return "HOME=%1$s/home XDG_STATE_HOME=%1$s/home/.local/state jdvm-artifacts --dir %1$s/store %2$s".formatted(testDir,
+                command);
+    }
+
+    @Test
+    void testJdvmProxyService() throws IOException, InterruptedException {
+        String conditionResult = getJDVMExecutor().run("systemctl show -p ConditionResult jdvm-proxy.service").exec();
+        assertThat(conditionResult).isEqualTo("ConditionResult=no");
+
+        String proxyDir = getJDVMExecutor().run("stat -c %U /var/cache/jdvm-proxy").exec();
+        assertThat(proxyDir).isEqualTo(IMAGE_USER);
+    }
+
+    @Test
+    void testJdvmProxy() throws IOException, InterruptedException {
+        String testDir = "/tmp/jdvm-proxy-test";
+        String artifact = "maven/org/example/example/1.0/example-1.0.jar";
+        getJDVMExecutor().run(("rm -rf -- %1$s && mkdir -p %1$s/upstream/org/example/example/1.0"
+                + " && echo example > %1$s/upstream/%2$s").formatted(testDir, artifact.substring("maven/".length()))).exec();
+        try {
+            getJDVMExecutor().run(("setsid python3 -m http.server 18081 --bind 127.0.0.1 --directory %s/upstream"
+                    + " > /dev/null 2>&1 < /dev/null &").formatted(testDir)).exec();
+            getJDVMExecutor().run(("setsid jdvm-proxy --port 18080 --dir %1$s/store --max-size 1M"
+                    + " --upstream maven=http://127.0.0.1:18081 --url-file %1$s/url > /dev/null 2>&1 < /dev/null &").formatted(
+                    testDir)).exec();
+            await().atMost(10, TimeUnit.SECONDS).with().pollInterval(200, TimeUnit.MILLISECONDS).until(
+                    () -> !getJDVMExecutor().run("cat %s/url".formatted(testDir)).justExec().isEmpty());
+
+            String miss = getJDVMExecutor().run("curl -sf -D - http://127.0.0.1:18080/" + artifact).exec();
+            assertThat(miss).contains("X-Cache: MISS").contains("example");
+
+            getJDVMExecutor().run("pkill -f \"http.server 18081\"").exec();
+            String hit = getJDVMExecutor().run("curl -sf -D - http://127.0.0.1:18080/" + artifact).exec();
+            assertThat(hit).contains("X-Cache: HIT").contains("example");
+            getJDVMExecutor().run("curl -sf http://127.0.0.1:18080/maven/org/example/example/2.0/example-2.0.jar")
+                    .execShouldFail();
+        } finally {
+            getJDVMExecutor().run("pkill -f \"http.server 18081\"").justExec();
+            getJDVMExecutor().run("pkill -f \"jdvm-proxy --port 18080\"").justExec();
+        }
+    }
+
     @Test
     void testLauncheeService() throws IOException, InterruptedException {
         String isActive = getJDVMExecutor().run("systemctl is-active launchee.service").exec();
@@ -118,16 +321,40 @@ class JDVMTest extends JDVMContainer {
     @Test
     void testJdvmConfig() throws IOException, InterruptedException {
         CharSequence[] files = new CharSequence[]{
-                "betterfox-policies.json", "betterfox-user.js", "docker-daemon.json", "kitty.conf", "tealdeer-config.toml"
+                "betterfox-policies.json", "betterfox-user.js", "docker-daemon.json", "kitty.conf", "maven-settings.xml",
+                "tealdeer-config.toml"
         };
         String jdvmConfigDir = getJDVMExecutor().ls("/etc/jdvm-config").exec();
         assertThat(jdvmConfigDir).contains(files).hasLineCount(files.length);
     }
 
+    @Test
+    void testJdvmHealthcheck() throws IOException, InterruptedException {
+        String healthStatus = getJDVM().getCurrentContainerInfo().getState().getHealth().getStatus();
+        assertThat(healthStatus).isEqualTo("healthy");
+
+        String healthcheck = getJDVMExecutor().run("jdvm-healthcheck").exec();
+        assertThat(healthcheck).contains("jdvm-init.service: active")
+                .contains("jdvm-dbus-session.service: active")
+                .contains("docker.service: active")
+                .contains("launchee.service: active")
+                .contains("Docker daemon: ready")
+                .contains("DBus session: ready");
+    }
+
+    @Test
+    void testJdvmProfileShell() throws IOException, InterruptedException {
+        String bashStartupProfile = getJDVMExecutor().shellStartupProfile(Shell.BASH).exec();
+        assertThat(bashStartupProfile).contains("BASH STARTUP:").contains(USER_HOME + "/.bashrc").doesNotContain("ZPROF");
+
+        String zshStartupProfile = getJDVMExecutor().shellStartupProfile(Shell.ZSH).exec();
+        assertThat(zshStartupProfile).contains("ZSH STARTUP:").contains(USER_HOME + "/.zshrc").contains("ZSH ZPROF");
+    }
+
     @Test
     void testJdvmTemplatesBase() throws IOException, InterruptedException {
         CharSequence[] files = new CharSequence[]{
-                "docker-env", "dconf", "env", "p10k.zsh"
+                "docker-env", "dconf", "env", "jvm-env", "p10k.zsh"
         };
         String jdvmTemplatesBaseDir = getJDVMExecutor().ls("/etc/jdvm-templates/base").exec();
         assertThat(jdvmTemplatesBaseDir).contains(files).hasLineCount(files.length);
@@ -146,6 +373,27 @@ class JDVMTest extends JDVMContainer {
                 .hasLineCount(7);
     }
 
+    @Test
+    void testJvmEnv() throws IOException, InterruptedException {
+        String cgroupLimits = getJDVMExecutor().run("jdvm-cgroup-limits").exec();
+        assertThat(cgroupLimits).matches("\\d+ \\d+");
+
+        getJDVMExecutor().printenv("JAVA_TOOL_OPTIONS").execShouldFail();
+
+        String mavenOpts = getJDVMExecutor().printenv("MAVEN_OPTS").exec();
+        assertThat(mavenOpts).matches("-Xmx\\d+m -XX:\\+Use(Serial|Parallel)GC");
+
+        String mavenArgs = getJDVMExecutor().printenv("MAVEN_ARGS").exec();
+        assertThat(mavenArgs).matches("-T \\d+.*");
+
+        String gradleProperties = getJDVMExecutor().cat(USER_HOME + "/.gradle/gradle.properties").exec();
+        assertThat(gradleProperties).startsWith("# BEGIN JDVM DEFAULTS")
+                .containsPattern("org.gradle.jvmargs=-Xmx\\d+m -XX:MaxMetaspaceSize=1g -XX:\\+Use(Serial|Parallel)GC")
+                .containsPattern("org.gradle.workers.max=\\d+")
+                .containsPattern("org.gradle.daemon.idletimeout=\\d+")
+                .contains("# END JDVM DEFAULTS");
+    }
+
     @Test
     void testJdvmTemplatesLocal() throws IOException, InterruptedException {
         CharSequence[] files = new CharSequence[]{
@@ -159,7 +407,7 @@ class JDVMTest extends JDVMContainer {
     @Test
     void testJdvmTemplatesUser() throws IOException, InterruptedException {
         CharSequence[] files = new CharSequence[]{
-                ".aliases", ".bash_aliases", ".bash_env", ".env", ".ps1", ".zlogout", ".zprofile", ".zshenv", ".zshrc"
+                ".aliases", ".bash_aliases", ".bash_env", ".env", ".gradle", ".ps1", ".zlogout", ".zprofile", ".zshenv", ".zshrc"
         };
         String jdvmTemplatesUserDir = getJDVMExecutor().ls("/etc/jdvm-templates/user").exec();
         assertThat(jdvmTemplatesUserDir).contains(files).hasLineCount(files.length);
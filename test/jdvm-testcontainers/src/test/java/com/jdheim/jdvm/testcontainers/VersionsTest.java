@@ -22,16 +22,15 @@ import static com.jdheim.jdvm.testcontainers.property.FileProperties.MAVEN;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
-import java.util.Set;
+import java.util.List;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.CommandResult;
 import com.jdheim.jdvm.testcontainers.setup.JDVMContainer;
-import org.junit.jupiter.api.MethodOrderer;
+import com.jdheim.jdvm.testcontainers.setup.Mutating;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.TestMethodOrder;
 
 /**
  * JDVM Versions Tests
  */
-@TestMethodOrder(MethodOrderer.MethodName.class)
 class VersionsTest extends JDVMContainer {
 
     @Test
@@ -43,14 +42,13 @@ class VersionsTest extends JDVMContainer {
 
     @Test
     void testJDVMVersion() throws IOException, InterruptedException {
-        String jdvmVersion = getJDVMExecutor().cat("/etc/versions/%s.version".formatted(MAVEN.getProperty("image.name"))).exec();
+        String jdvmVersion = getJDVMVersions().getVersion("JDVM");
         assertThat(jdvmVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("image.version"));
     }
 
     @Test
     void testUbuntu() throws IOException, InterruptedException {
-        String ubuntuVersion = getJDVMExecutor().run("grep \"VERSION=\" \"/etc/os-release\" | sed \"s/.*=\\\"//;s/ .*//\"")
-                .exec();
+        String ubuntuVersion = getJDVMVersions().getVersion("Ubuntu");
         assertThat(ubuntuVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("ubuntu.version"));
     }
 
@@ -65,7 +63,7 @@ class VersionsTest extends JDVMContainer {
         String kittyConf = getJDVMExecutor().cat(USER_HOME + "/.config/kitty/kitty.conf").exec();
         assertThat(kittyConf).contains("font_family MesloLGS NF");
 
-        String kittyVersion = getJDVMExecutor().run("kitty --version | sed \"s/kitty //;s/ .*//\"").exec();
+        String kittyVersion = getJDVMVersions().getVersion("Kitty Terminal");
         assertThat(kittyVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("kitty.version"));
 
         String kittenVersion = getJDVMExecutor().run("kitten --version | sed \"s/kitten //;s/ .*//\"").exec();
@@ -89,7 +87,7 @@ class VersionsTest extends JDVMContainer {
         String env = getJDVMExecutor().cat("/etc/jdvm-templates/base/env").exec();
         assertThat(env).contains("export FIREFOX_PROFILE=\"%s\"".formatted(IMAGE_USER));
 
-        String firefoxVersion = getJDVMExecutor().run("firefox --version | sed \"s/.* //\"").exec();
+        String firefoxVersion = getJDVMVersions().getVersion("Firefox");
         assertThat(firefoxVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("firefox.version"));
     }
 
@@ -98,7 +96,7 @@ class VersionsTest extends JDVMContainer {
         String upxPath = getJDVMExecutor().executablePath("upx").exec();
         assertThat(upxPath).isEqualTo("/usr/local/bin/upx");
 
-        String upxVersion = getJDVMExecutor().run("upx --version | grep -m 1 \"upx\" | sed \"s/.* //\"").exec();
+        String upxVersion = getJDVMVersions().getVersion("Upx");
         assertThat(upxVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("upx.version"));
     }
 
@@ -110,7 +108,7 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("git-prompt");
 
-        String gitVersion = getJDVMExecutor().run("git version | sed \"s/.*version //\"").exec();
+        String gitVersion = getJDVMVersions().getVersion("Git");
         assertThat(gitVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("git.version"));
     }
 
@@ -119,7 +117,7 @@ class VersionsTest extends JDVMContainer {
         String gitFilterRepoPath = getJDVMExecutor().executablePath("git-filter-repo").exec();
         assertThat(gitFilterRepoPath).isEqualTo("/usr/local/bin/git-filter-repo");
 
-        String gitFilterRepoVersion = getJDVMExecutor().cat("/etc/versions/git-filter-repo.version").exec();
+        String gitFilterRepoVersion = getJDVMVersions().getVersion("Git Filter-Repo");
         assertThat(gitFilterRepoVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("git-filter-repo.version"));
     }
 
@@ -128,7 +126,7 @@ class VersionsTest extends JDVMContainer {
         String gitLfsPath = getJDVMExecutor().executablePath("git-lfs").exec();
         assertThat(gitLfsPath).isEqualTo("/usr/local/bin/git-lfs");
 
-        String gitLfsVersion = getJDVMExecutor().run("git lfs version | sed \"s/.*\\///;s/ (.*//\"").exec();
+        String gitLfsVersion = getJDVMVersions().getVersion("Git LFS");
         assertThat(gitLfsVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("git-lfs.version"));
     }
 
@@ -140,7 +138,7 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("gh");
 
-        String ghVersion = getJDVMExecutor().run("gh --version | grep gh | sed \"s/.*version //;s/ (.*//\"").exec();
+        String ghVersion = getJDVMVersions().getVersion("GitHub CLI");
         assertThat(ghVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("github-cli.version"));
     }
 
@@ -178,11 +176,14 @@ class VersionsTest extends JDVMContainer {
                 .contains("sdkman_curl_max_time=120")
                 .contains("sdkman_selfupdate_feature=false");
 
-        Set<String> executables = Set.of(USER_HOME + "/.sdkman/bin/sdkman-init.sh", USER_HOME + "/.sdkman/src/sdkman-list.sh",
-                USER_HOME + "/.sdkman/src/sdkman-upgrade.sh");
-        for (String executable : executables) {
-            String sdkManExecutable = getJDVMExecutor().cat(executable).exec();
-            assertThat(sdkManExecutable).containsOnlyOnce("$(find").containsOnlyOnce("$(find -L");
+        List<CommandResult> sdkManExecutables = getJDVMExecutor().batch()
+                .cat(USER_HOME + "/.sdkman/bin/sdkman-init.sh")
+                .cat(USER_HOME + "/.sdkman/src/sdkman-list.sh")
+                .cat(USER_HOME + "/.sdkman/src/sdkman-upgrade.sh")
+                .exec();
+        assertThat(sdkManExecutables).hasSize(3);
+        for (CommandResult sdkManExecutable : sdkManExecutables) {
+            assertThat(sdkManExecutable.stdout()).containsOnlyOnce("$(find").containsOnlyOnce("$(find -L");
         }
 
         String sdkManVersion = getJDVMExecutor().cat(USER_HOME + "/.sdkman/var/version").exec();
@@ -210,12 +211,10 @@ class VersionsTest extends JDVMContainer {
         String javaCurrentPath = getJDVMExecutor().symlinkPath("/opt/java/current").exec();
         assertThat(javaCurrentPath).isEqualTo(jdkLtsVersionWithDistribution);
 
-        String jdkLtsVersion = getJDVMExecutor().run("java --version | grep \"openjdk\" | sed \"s/openjdk \\([^ ]*\\) .*/\\1/\"")
-                .exec();
+        String jdkLtsVersion = getJDVMVersions().getVersion("Java LTS");
         assertThat(jdkLtsVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("jdk-lts.version"));
 
-        String jdkStsVersion = getJDVMExecutor().run("/opt/java/" + jdkStsVersionWithDistribution +
-                "/bin/java --version | grep \"openjdk\" | sed \"s/openjdk \\([^ ]*\\) .*/\\1/\"").exec();
+        String jdkStsVersion = getJDVMVersions().getVersion("Java STS");
         assertThat(jdkStsVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("jdk-sts.version"));
     }
 
@@ -227,15 +226,17 @@ class VersionsTest extends JDVMContainer {
         String sdkmanCandidatesDir = getJDVMExecutor().ls("/opt/sdkman/candidates").exec();
         assertThat(sdkmanCandidatesDir).doesNotContain("jbang");
 
-        String jbangVersion = getJDVMExecutor().run("jbang version").exec();
+        String jbangVersion = getJDVMVersions().getVersion("JBang");
         assertThat(jbangVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("jbang.version"));
     }
 
     @Test
+    @Mutating
     void testJMeter() throws IOException, InterruptedException {
         String jmeterPath = getJDVMExecutor().executablePath("jmeter").exec();
-        assertThat(jmeterPath).isEqualTo("/opt/jmeter/bin/jmeter");
+        assertThat(jmeterPath).isEqualTo("/usr/local/bin/jmeter");
 
+        getJDVMExecutor().run("jmeter -n --version -j /dev/null").exec();
         String jmeterDir = getJDVMExecutor().ls(USER_HOME + "/.java/.userPrefs/org/apache/jmeter").exec();
         assertThat(jmeterDir).contains("prefs.xml");
 
@@ -245,9 +246,7 @@ class VersionsTest extends JDVMContainer {
         String sdkmanCandidatesDir = getJDVMExecutor().ls("/opt/sdkman/candidates").exec();
         assertThat(sdkmanCandidatesDir).doesNotContain("jmeter");
 
-        String jmeterVersion = getJDVMExecutor().run(
-                        "jmeter -n --version -j /dev/null 2>/dev/null | grep -m 1 -E \"[0-9]+\" | sed \"s/.* \\([0-9]\\+\\)/\\1/\"")
-                .exec();
+        String jmeterVersion = getJDVMVersions().getVersion("JMeter");
         assertThat(jmeterVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("jmeter.version"));
     }
 
@@ -259,7 +258,7 @@ class VersionsTest extends JDVMContainer {
         String sdkmanCandidatesDir = getJDVMExecutor().ls("/opt/sdkman/candidates").exec();
         assertThat(sdkmanCandidatesDir).doesNotContain("jreleaser");
 
-        String jreleaserVersion = getJDVMExecutor().run("jreleaser --version | grep jreleaser | sed \"s/.* //\"").exec();
+        String jreleaserVersion = getJDVMVersions().getVersion("JReleaser");
         assertThat(jreleaserVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("jreleaser.version"));
     }
 
@@ -271,8 +270,7 @@ class VersionsTest extends JDVMContainer {
         String sdkmanCandidatesDir = getJDVMExecutor().ls("/opt/sdkman/candidates").exec();
         assertThat(sdkmanCandidatesDir).doesNotContain("gradle");
 
-        String gradleVersion = getJDVMExecutor().run(
-                "gradle --version | grep -m 1 \"Gradle \" | sed -e \"s/.* //\" -e \"s/\\!//\"").exec();
+        String gradleVersion = getJDVMVersions().getVersion("Gradle");
         assertThat(gradleVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("gradle.version"));
     }
 
@@ -290,8 +288,7 @@ class VersionsTest extends JDVMContainer {
         String m2Dir = getJDVMExecutor().ls(USER_HOME + "/.m2").exec();
         assertThat(m2Dir).contains("repository");
 
-        String mvnVersion = getJDVMExecutor().run("mvn -B -v | grep \"Apache Maven\" | sed \"s/Apache Maven \\([^ ]*\\).*/\\1/\"")
-                .exec();
+        String mvnVersion = getJDVMVersions().getVersion("Maven");
         assertThat(mvnVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("mvn.version"));
     }
 
@@ -303,7 +300,7 @@ class VersionsTest extends JDVMContainer {
         String sdkmanCandidatesDir = getJDVMExecutor().ls("/opt/sdkman/candidates").exec();
         assertThat(sdkmanCandidatesDir).doesNotContain("springboot");
 
-        String springVersion = getJDVMExecutor().run("spring --version | sed \"s/.*v//\"").exec();
+        String springVersion = getJDVMVersions().getVersion("Spring Boot CLI");
         assertThat(springVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("spring-boot-cli.version"));
     }
 
@@ -330,7 +327,7 @@ class VersionsTest extends JDVMContainer {
         String kernelKptrRestrict = getJDVMExecutor().run("sysctl kernel.kptr_restrict").exec();
         assertThat(kernelKptrRestrict).isEqualTo("kernel.kptr_restrict = 0");
 
-        String asyncProfilerVersion = getJDVMExecutor().run("asprof --version | sed \"s/.*profiler //;s/ .*//\"").exec();
+        String asyncProfilerVersion = getJDVMVersions().getVersion("Async Profiler");
         assertThat(asyncProfilerVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("async-profiler.version"));
     }
 
@@ -348,8 +345,7 @@ class VersionsTest extends JDVMContainer {
         String kafkaTopicsPath = getJDVMExecutor().executablePath("kafka-topics.sh").exec();
         assertThat(kafkaTopicsPath).isEqualTo("/opt/kafka/bin/kafka-topics.sh");
 
-        String kafkaVersion = getJDVMExecutor().run(
-                "ls \"/opt/kafka/libs\" | grep -m 1 \"kafka-server\" | sed \"s/.*-//;s/.jar//\"").exec();
+        String kafkaVersion = getJDVMVersions().getVersion("Kafka");
         assertThat(kafkaVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("kafka.version"));
     }
 
@@ -364,7 +360,7 @@ class VersionsTest extends JDVMContainer {
         String nodePath = getJDVMExecutor().executablePath("node").exec();
         assertThat(nodePath).isEqualTo("/opt/node/bin/node");
 
-        String nodeVersion = getJDVMExecutor().run("node --version | sed \"s/v//\"").exec();
+        String nodeVersion = getJDVMVersions().getVersion("Node");
         assertThat(nodeVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("node.version"));
     }
 
@@ -379,7 +375,7 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("npm");
 
-        String npmVersion = getJDVMExecutor().run("npm --version").exec();
+        String npmVersion = getJDVMVersions().getVersion("Npm");
         assertThat(npmVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("npm.version"));
 
         String npxVersion = getJDVMExecutor().run("npx --version").exec();
@@ -397,7 +393,7 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("pnpm");
 
-        String pnpmVersion = getJDVMExecutor().run("pnpm --version").exec();
+        String pnpmVersion = getJDVMVersions().getVersion("Pnpm");
         assertThat(pnpmVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("pnpm.version"));
     }
 
@@ -412,7 +408,7 @@ class VersionsTest extends JDVMContainer {
         String yarnRc = getJDVMExecutor().cat(USER_HOME + "/.yarnrc.yml").exec();
         assertThat(yarnRc).contains("enableTelemetry: false");
 
-        String yarnVersion = getJDVMExecutor().run("yarn --version").exec();
+        String yarnVersion = getJDVMVersions().getVersion("Yarn");
         assertThat(yarnVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("yarn.version"));
 
         String yarnpkgVersion = getJDVMExecutor().run("yarnpkg --version").exec();
@@ -424,7 +420,7 @@ class VersionsTest extends JDVMContainer {
         String gulpPath = getJDVMExecutor().executablePath("gulp").exec();
         assertThat(gulpPath).isEqualTo("/opt/node/bin/gulp");
 
-        String gulpVersion = getJDVMExecutor().run("gulp --version | grep \"CLI\" | sed \"s/.*: //\"").exec();
+        String gulpVersion = getJDVMVersions().getVersion("Gulp CLI");
         assertThat(gulpVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("gulp-cli.version"));
     }
 
@@ -433,7 +429,7 @@ class VersionsTest extends JDVMContainer {
         String pythonPath = getJDVMExecutor().executablePath("python3").exec();
         assertThat(pythonPath).isEqualTo("/usr/bin/python3");
 
-        String pythonVersion = getJDVMExecutor().run("python3 --version | sed \"s/.* //\"").exec();
+        String pythonVersion = getJDVMVersions().getVersion("Python");
         assertThat(pythonVersion).isEqualTo("3.13.3");
     }
 
@@ -445,7 +441,7 @@ class VersionsTest extends JDVMContainer {
         String uvxPath = getJDVMExecutor().executablePath("uvx").exec();
         assertThat(uvxPath).isEqualTo("/usr/local/bin/uvx");
 
-        String uvVersion = getJDVMExecutor().run("uv --version | sed \"s/.* //\"").exec();
+        String uvVersion = getJDVMVersions().getVersion("UV");
         assertThat(uvVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("uv.version"));
     }
 
@@ -460,7 +456,7 @@ class VersionsTest extends JDVMContainer {
         String goTelemetryMode = getJDVMExecutor().cat(USER_HOME + "/.config/go/telemetry/mode").exec();
         assertThat(goTelemetryMode).isEqualTo("off");
 
-        String goVersion = getJDVMExecutor().run("go version | sed \"s/.* go//;s/ .*//\"").exec();
+        String goVersion = getJDVMVersions().getVersion("Go");
         assertThat(goVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("go.version"));
     }
 
@@ -469,7 +465,7 @@ class VersionsTest extends JDVMContainer {
         String containerdPath = getJDVMExecutor().executablePath("containerd").exec();
         assertThat(containerdPath).isEqualTo("/usr/bin/containerd");
 
-        String containerdVersion = getJDVMExecutor().run("containerd --version | sed -e \"s/.*io //\" -e \"s/ .*//\"").exec();
+        String containerdVersion = getJDVMVersions().getVersion("Containerd");
         assertThat(containerdVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("containerd.io.version"));
     }
 
@@ -481,10 +477,10 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("docker");
 
-        String dockerClientVersion = getJDVMExecutor().run("docker version --format \"{{.Client.Version}}\"").exec();
+        String dockerClientVersion = getJDVMVersions().getVersion("Docker Client");
         assertThat(dockerClientVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("docker.version"));
 
-        String dockerServerVersion = getJDVMExecutor().run("docker version --format \"{{.Server.Version}}\"").exec();
+        String dockerServerVersion = getJDVMVersions().getVersion("Docker Server");
         assertThat(dockerServerVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("docker.version"));
 
         String dockerDriver = getJDVMExecutor().run("docker system info --format \"{{.Driver}}\"").exec();
@@ -496,7 +492,7 @@ class VersionsTest extends JDVMContainer {
         String dockerCliPluginsDir = getJDVMExecutor().ls("/usr/libexec/docker/cli-plugins").exec();
         assertThat(dockerCliPluginsDir).contains("docker-buildx");
 
-        String dockerBuildxVersion = getJDVMExecutor().run("docker buildx version | sed \"s/.* v//;s/ .*//\"").exec();
+        String dockerBuildxVersion = getJDVMVersions().getVersion("Docker Buildx");
         assertThat(dockerBuildxVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("docker-buildx.version"));
     }
 
@@ -505,7 +501,7 @@ class VersionsTest extends JDVMContainer {
         String dockerCliPluginsDir = getJDVMExecutor().ls("/usr/libexec/docker/cli-plugins").exec();
         assertThat(dockerCliPluginsDir).contains("docker-compose");
 
-        String dockerComposeVersion = getJDVMExecutor().run("docker compose version --short").exec();
+        String dockerComposeVersion = getJDVMVersions().getVersion("Docker Compose");
         assertThat(dockerComposeVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("docker-compose.version"));
     }
 
@@ -514,8 +510,7 @@ class VersionsTest extends JDVMContainer {
         String dockerCliPluginsDir = getJDVMExecutor().ls("/usr/local/lib/docker/cli-plugins").exec();
         assertThat(dockerCliPluginsDir).contains("docker-scout");
 
-        String dockerScoutVersion = getJDVMExecutor().run("docker scout version | grep version | sed \"s/.* v//;s/ (.*//\"")
-                .exec();
+        String dockerScoutVersion = getJDVMVersions().getVersion("Docker Scout");
         assertThat(dockerScoutVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("docker-scout.version"));
     }
 
@@ -524,7 +519,7 @@ class VersionsTest extends JDVMContainer {
         String divePath = getJDVMExecutor().executablePath("dive").exec();
         assertThat(divePath).isEqualTo("/usr/local/bin/dive");
 
-        String diveVersion = getJDVMExecutor().run("dive --version | sed \"s/.* //\"").exec();
+        String diveVersion = getJDVMVersions().getVersion("Dive");
         assertThat(diveVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("dive.version"));
     }
 
@@ -533,7 +528,7 @@ class VersionsTest extends JDVMContainer {
         String hadolintPath = getJDVMExecutor().executablePath("hadolint").exec();
         assertThat(hadolintPath).isEqualTo("/usr/local/bin/hadolint");
 
-        String hadolintVersion = getJDVMExecutor().run("hadolint --version | sed \"s/.* //\"").exec();
+        String hadolintVersion = getJDVMVersions().getVersion("Hadolint");
         assertThat(hadolintVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("hadolint.version"));
     }
 
@@ -551,8 +546,7 @@ class VersionsTest extends JDVMContainer {
         String slimSensorPath = getJDVMExecutor().executablePath("slim-sensor").exec();
         assertThat(slimSensorPath).isEqualTo("/usr/local/bin/slim-sensor");
 
-        String slimVersion = getJDVMExecutor().run("slim --version | sed \"s/.*version [^|]*|[^|]*|.\\.\\([^|]*\\)|.*/\\1/\"")
-                .exec();
+        String slimVersion = getJDVMVersions().getVersion("Slim");
         assertThat(slimVersion).isEqualTo("1.42.2");
     }
 
@@ -564,8 +558,7 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("kubectl");
 
-        String kubectlVersion = getJDVMExecutor().run("kubectl version --client | grep \"Client Version:\" | sed \"s/.*v//\"")
-                .exec();
+        String kubectlVersion = getJDVMVersions().getVersion("Kubectl Client");
         assertThat(kubectlVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("kubectl.version"));
     }
 
@@ -609,7 +602,7 @@ class VersionsTest extends JDVMContainer {
                 "/opt/krew/store/krew/v%s".formatted(MAVEN.getProperty("kubectl-krew.version"))).exec();
         assertThat(krewStoreDir).contains("LICENSE", "krew");
 
-        String krewVersion = getJDVMExecutor().run("kubectl krew version | grep \"GitTag\" | sed \"s/.*v//\"").exec();
+        String krewVersion = getJDVMVersions().getVersion("Kubectl Krew");
         assertThat(krewVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("kubectl-krew.version"));
     }
 
@@ -621,11 +614,16 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("k3d");
 
-        String k3dVersion = getJDVMExecutor().run("k3d version | grep \"k3d\" | sed \"s/.*v//\"").exec();
+        String k3dVersion = getJDVMVersions().getVersion("K3d");
         assertThat(k3dVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("k3d.version"));
 
-        String k3sVersion = getJDVMExecutor().run("k3d version | grep \"k3s\" | sed \"s/.*v//;s/ (.*//\"").exec();
+        String k3sVersion = getJDVMVersions().getVersion("Kubectl Server");
         assertThat(k3sVersion).isEqualTo("1.31.5-k3s1");
+
+        String preloadImages = MAVEN.getProperty("preload.images");
+        assertThat(preloadImages).contains("rancher/k3s:v" + k3sVersion)
+                .contains("ghcr.io/k3d-io/k3d-proxy:" + k3dVersion)
+                .contains("ghcr.io/k3d-io/k3d-tools:" + k3dVersion);
     }
 
     @Test
@@ -636,7 +634,7 @@ class VersionsTest extends JDVMContainer {
         String bashCompletionDir = getJDVMExecutor().ls("/etc/bash_completion.d").exec();
         assertThat(bashCompletionDir).contains("helm");
 
-        String helmVersion = getJDVMExecutor().run("helm version --template=\"Version: {{.Version}}\" | sed \"s/.*v//\"").exec();
+        String helmVersion = getJDVMVersions().getVersion("Helm");
         assertThat(helmVersion).isNotEmpty().isEqualTo(MAVEN.getProperty("helm.version"));
     }
 
@@ -648,6 +646,14 @@ class VersionsTest extends JDVMContainer {
         String versions = getJDVMExecutor().cat("/tmp/versions.md").exec();
         assertThat(versions).isNotEmpty().doesNotContain("****");
 
+        String versionsCacheDir = getJDVMExecutor().ls(USER_HOME + "/.cache/jdvm-versions").exec();
+        assertThat(versionsCacheDir).contains("getJavaLtsVersion", "getMavenVersion", "getGradleVersion");
+
+        String cachedJdvmVersions = getJDVMExecutor().run("jdvm-versions -o").exec();
+        assertThat(cachedJdvmVersions).contains("Versions saved to: /tmp/versions.md");
+        String cachedVersions = getJDVMExecutor().cat("/tmp/versions.md").exec();
+        assertThat(cachedVersions).isEqualTo(versions);
+
         String homeDir = getJDVMExecutor().ls(USER_HOME).exec();
         assertThat(homeDir).doesNotContain("jmeter.log");
 
@@ -16,52 +16,47 @@
 
 package com.jdheim.jdvm.testcontainers.setup;
 
-import static com.jdheim.jdvm.testcontainers.constant.TestConstants.HOSTNAME;
-import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
-
-import java.time.Duration;
-import com.github.dockerjava.api.model.Volume;
+import java.io.IOException;
 import com.jdheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.ExecStep.Shell;
+import com.jdheim.jdvm.testcontainers.property.JDVMVersions;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.testcontainers.containers.GenericContainer;
-import org.testcontainers.containers.wait.strategy.Wait;
-import org.testcontainers.shaded.org.apache.commons.lang3.StringUtils;
-import org.testcontainers.utility.DockerImageName;
 
 /**
- * The JDVMContainer class provides a pre-configured singleton Docker container.
+ * The JDVMContainer class provides a pre-configured Docker container leased from the {@link JDVMContainerPool}.
  * It ensures that the necessary setup is applied when the container is started.
+ * Tests sharing the container run concurrently, except for the {@link Mutating} ones which run exclusively
+ * and get the user home restored from the checkpoint taken after the container startup.
  */
+@ResourceLock(providers = JDVMResourceLocksProvider.class)
+@ExtendWith(UserHomeCheckpointExtension.class)
 public class JDVMContainer {
 
-    @SuppressWarnings("resource")
-    private static final GenericContainer<?> JDVM = new GenericContainer<>(DockerImageName.parse(IMAGE_TAG)).withPrivilegedMode(
-                    true)
-            .withCreateContainerCmdModifier(cmd -> cmd.withHostName(HOSTNAME).withVolumes(new Volume("/var/lib/docker")))
-            .withEnv("PULSE_SERVER", StringUtils.EMPTY)
-            .withEnv("DISPLAY", StringUtils.EMPTY)
-            .withEnv("WAYLAND_DISPLAY", StringUtils.EMPTY)
-            .waitingFor(Wait.forHealthcheck().withStartupTimeout(Duration.ofSeconds(5 * 60)));
-
-    static {
-        getJDVM().start();
-        Runtime.getRuntime().addShutdownHook(Thread.ofVirtual().unstarted(() -> getJDVM().stop()));
-    }
-
     /**
-     * Provides access to the pre-configured JDVM container.
-     * This container is a singleton instance and is started during class initialization to
-     * ensure it is running and ready for use in related operations and tests.
+     * Provides access to the pre-configured JDVM container leased by the test class.
+     * The container is started with the pool and is running and ready for use in related operations and tests.
      */
-    protected static GenericContainer<?> getJDVM() {
-        return JDVM;
+    protected GenericContainer<?> getJDVM() {
+        return JDVMContainerPool.lease(getClass());
     }
 
     /**
      * Provides a command execution step for interacting with the pre-configured JDVM container.
      * This method initializes a fluent API for defining and executing shell commands within the container.
+     * Commands are executed within the long-lived shell sessions of the container, bash by default.
+     */
+    protected DockerExecutor.CommandStep getJDVMExecutor() {
+        return DockerExecutor.session(getJDVM(), Shell.BASH);
+    }
+
+    /**
+     * Provides the versions of the dependencies installed in the pre-configured JDVM container.
+     * The versions are loaded with a single {@code jdvm-versions --json} execution shared by all tests of the container.
      */
-    protected static DockerExecutor.CommandStep getJDVMExecutor() {
-        return DockerExecutor.in(getJDVM());
+    protected JDVMVersions getJDVMVersions() throws IOException, InterruptedException {
+        return JDVMVersions.of(getJDVM());
     }
 
 }
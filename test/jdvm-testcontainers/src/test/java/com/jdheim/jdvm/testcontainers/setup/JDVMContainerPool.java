@@ -0,0 +1,188 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.setup;
+
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.CONTAINER_POOL_REUSE;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.CONTAINER_POOL_SIZE;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.HOSTNAME;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_USER;
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.USER_HOME;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Volume;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.ExecStep.Shell;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.shaded.org.apache.commons.lang3.StringUtils;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * A pool of JDVM containers, each started lazily on the first lease of its slot and reused by the later ones.
+ *
+ * <p>Test classes are assigned the pool slots round-robin, so with a pool size of {@code n} up to {@code n} test classes
+ * run side by side against their own container. The container of a slot is started on its first lease, so the slot
+ * assignment during test discovery starts nothing, and it is ready as soon as its healthcheck passes.</p>
+ *
+ * <p>The pool size is set with {@code -Djdvm.pool.size}. With {@code -Djdvm.pool.reuse=true} the containers are kept running
+ * and reused by subsequent test runs, which requires {@code testcontainers.reuse.enable=true}
+ * in {@code ~/.testcontainers.properties}. The reused containers are matched by their pool slot and image id labels,
+ * so a rebuilt image gets new containers.</p>
+ *
+ * <p>A {@link StartupReport} is written for every container started by the pool.</p>
+ */
+final class JDVMContainerPool {
+
+    private static final String SLOT_LABEL = "com.jdheim.jdvm.pool.slot";
+
+    private static final String IMAGE_ID_LABEL = "com.jdheim.jdvm.image.id";
+
+    private static final String USER_HOME_CHECKPOINT = "/tmp/jdvm-user-home-checkpoint.tar";
+
+    private static final JDVMContainerPool POOL = new JDVMContainerPool(Math.max(CONTAINER_POOL_SIZE, 1),
+            slot -> start(slot, getImageId()));
+
+    private final int size;
+
+    private final IntFunction<GenericContainer<?>> starter;
+
+    private final Map<Integer, CompletableFuture<GenericContainer<?>>> containers = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Integer> leases = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a pool of the given size, which starts the container of a slot with the starter on its first lease.
+     */
+    JDVMContainerPool(int size, IntFunction<GenericContainer<?>> starter) {
+        this.size = size;
+        this.starter = starter;
+    }
+
+    /**
+     * Returns the pool slot leased by the test class. The slots are assigned round-robin on the first call.
+     */
+    static int getSlot(Class<?> testClass) {
+        return POOL.slotOf(testClass);
+    }
+
+    /**
+     * Returns the container leased by the test class, starting it on the first lease of its slot
+     * and waiting until it is ready.
+     */
+    static GenericContainer<?> lease(Class<?> testClass) {
+        return POOL.leaseFor(testClass);
+    }
+
+    int slotOf(Class<?> testClass) {
+        return leases.computeIfAbsent(testClass, c -> nextSlot.getAndIncrement() % size);
+    }
+
+    GenericContainer<?> leaseFor(Class<?> testClass) {
+        return containers.computeIfAbsent(slotOf(testClass),
+                slot -> CompletableFuture.supplyAsync(() -> starter.apply(slot), executor)).join();
+    }
+
+    /**
+     * Restores the user home of the container from the checkpoint taken after the container startup.
+     * Any files created, changed or removed since then are reverted, and the shell sessions are closed,
+     * so subsequent commands source the restored startup files.
+     */
+    static void restoreUserHome(GenericContainer<?> container) throws IOException, InterruptedException {
+        DockerExecutor.CommandStep executor = DockerExecutor.session(container, Shell.BASH);
+        executor.run("sudo find \"%s\" -mindepth 1 -delete".formatted(USER_HOME)).exec();
+        executor.run("sudo tar --extract --same-owner --file=\"%s\" --directory=/home".formatted(USER_HOME_CHECKPOINT)).exec();
+        DockerExecutor.closeSessions(container);
+    }
+
+    @SuppressWarnings("resource")
+    private static GenericContainer<?> start(int slot, String imageId) {
+        GenericContainer<?> container = new GenericContainer<>(DockerImageName.parse(IMAGE_TAG)).withPrivilegedMode(true)
+                .withCreateContainerCmdModifier(cmd -> cmd.withHostName(HOSTNAME).withVolumes(new Volume("/var/lib/docker")))
+                .withEnv("PULSE_SERVER", StringUtils.EMPTY)
+                .withEnv("DISPLAY", StringUtils.EMPTY)
+                .withEnv("WAYLAND_DISPLAY", StringUtils.EMPTY)
+                .withLabel(SLOT_LABEL, String.valueOf(slot))
+                .withLabel(IMAGE_ID_LABEL, imageId)
+                .withReuse(CONTAINER_POOL_REUSE)
+                .waitingFor(Wait.forHealthcheck().withStartupTimeout(Duration.ofSeconds(5 * 60)));
+        Instant startRequestedAt = Instant.now();
+        container.start();
+        Instant healthyAt = Instant.now();
+        if (!CONTAINER_POOL_REUSE) {
+            Runtime.getRuntime().addShutdownHook(Thread.ofVirtual().unstarted(() -> stop(container)));
+        }
+        try {
+            checkpointUserHome(container);
+            if (!CONTAINER_POOL_REUSE || !Instant.parse(container.getContainerInfo().getState().getStartedAt())
+                    .isBefore(startRequestedAt)) {
+                StartupReport.write(container, slot, healthyAt);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return container;
+    }
+
+    /**
+     * Captures the initialized user home of the container as a checkpoint, unless a reused container already has one.
+     */
+    private static void checkpointUserHome(GenericContainer<?> container) throws IOException, InterruptedException {
+        DockerExecutor.session(container, Shell.BASH)
+                .run("test -f \"%1$s\" || sudo tar --create --file=\"%1$s\" --directory=/home \"%2$s\"".formatted(
+                        USER_HOME_CHECKPOINT, IMAGE_USER))
+                .exec();
+    }
+
+    private static void stop(GenericContainer<?> container) {
+        try {
+            DockerExecutor.closeSessions(container);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            container.stop();
+        }
+    }
+
+    private static String getImageId() {
+        try {
+            return DockerClientFactory.lazyClient().inspectImageCmd(IMAGE_TAG).exec().getId();
+        } catch (NotFoundException e) {
+            return IMAGE_TAG;
+        }
+    }
+
+}
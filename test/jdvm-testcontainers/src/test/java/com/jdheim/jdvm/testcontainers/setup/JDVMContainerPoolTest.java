@@ -0,0 +1,68 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.setup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * JDVM Container Pool Tests
+ */
+class JDVMContainerPoolTest {
+
+    private final List<Integer> startedSlots = new CopyOnWriteArrayList<>();
+
+    private final List<GenericContainer<?>> startedContainers = new CopyOnWriteArrayList<>();
+
+    private final JDVMContainerPool pool = new JDVMContainerPool(2, slot -> {
+        GenericContainer<?> container = new GenericContainer<>(DockerImageName.parse("jdvm:slot-" + slot));
+        startedSlots.add(slot);
+        startedContainers.add(container);
+        return container;
+    });
+
+    @Test
+    void testSlotAssignment() {
+        assertThat(pool.slotOf(String.class)).isZero();
+        assertThat(pool.slotOf(Integer.class)).isOne();
+        assertThat(pool.slotOf(Long.class)).isZero();
+        assertThat(pool.slotOf(String.class)).isZero();
+        assertThat(pool.slotOf(Integer.class)).isOne();
+        assertThat(startedSlots).isEmpty();
+    }
+
+    @Test
+    void testLease() {
+        GenericContainer<?> stringContainer = pool.leaseFor(String.class);
+        assertThat(startedSlots).containsExactly(0);
+        assertThat(stringContainer).isSameAs(startedContainers.getFirst());
+
+        assertThat(pool.leaseFor(String.class)).isSameAs(stringContainer);
+        GenericContainer<?> integerContainer = pool.leaseFor(Integer.class);
+        assertThat(startedSlots).containsExactly(0, 1);
+        assertThat(integerContainer).isSameAs(startedContainers.getLast()).isNotSameAs(stringContainer);
+
+        assertThat(pool.leaseFor(Long.class)).isSameAs(stringContainer);
+        assertThat(startedSlots).containsExactly(0, 1);
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.setup;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.parallel.ResourceAccessMode;
+import org.junit.jupiter.api.parallel.ResourceLocksProvider;
+
+/**
+ * Provides the lock of the JDVM container leased by the test class for every test.
+ * Tests annotated with {@link Mutating} get an exclusive lock, all other tests get a shared (read-only) lock.
+ */
+public class JDVMResourceLocksProvider implements ResourceLocksProvider {
+
+    /** The key prefix of the JDVM container resources, followed by the pool slot */
+    public static final String JDVM_RESOURCE = "jdvm-container-";
+
+    @Override
+    public Set<Lock> provideForMethod(List<Class<?>> enclosingInstanceTypes, Class<?> testClass, Method testMethod) {
+        ResourceAccessMode accessMode = testMethod.isAnnotationPresent(Mutating.class) ? ResourceAccessMode.READ_WRITE
+                : ResourceAccessMode.READ;
+        return Set.of(new Lock(JDVM_RESOURCE + JDVMContainerPool.getSlot(testClass), accessMode));
+    }
+
+}
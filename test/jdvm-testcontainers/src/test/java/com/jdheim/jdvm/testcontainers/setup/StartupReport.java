@@ -0,0 +1,255 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.setup;
+
+import static com.jdheim.jdvm.testcontainers.constant.TestConstants.IMAGE_TAG;
+import static com.jdheim.jdvm.testcontainers.json.Json.quote;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor;
+import com.jdheim.jdvm.testcontainers.docker.DockerExecutor.ExecStep.Shell;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Startup report of a JDVM container, published as JSON and Markdown next to {@code target/versions.md}.
+ *
+ * <p>The phases are collected from the timestamped Docker Entrypoint log (systemd start), from the journal of the
+ * initialization service (initialization steps) and from the monotonic timestamps of the systemd manager and units,
+ * anchored to the systemd start in the log.
+ * All phases are relative to the container start, so cold-start regressions can be tracked release to release.</p>
+ */
+final class StartupReport {
+
+    private static final List<String> SYSTEMD_UNITS = List.of("systemd-journald.service", "jdvm-journal.service", "dbus.service",
+            "jdvm-init.service", "jdvm-dbus-session.service", "jdvm-apt-update.service", "launchee.service");
+
+    private static final String INITIALIZATION_UNIT = "jdvm-init.service";
+
+    private static final Pattern JOURNAL_LINE = Pattern.compile("^(\\d+)\\.(\\d{6}) [^:]+: (.*)$");
+
+    private static final Pattern ANSI_ESCAPE = Pattern.compile("\u001B\\[[;\\d]*m");
+
+    private static final Pattern RUNNING_FILE = Pattern.compile("\\[INFO] Running .*/(.+)$");
+
+    private static final Pattern FINISHED_FILE = Pattern.compile("\\[INFO] Finished .*/(.+)$");
+
+    private static final String START_INITIALIZATION = "[STEP] ----- Start initialization -----";
+
+    private static final String INITIALIZATION_COMPLETE = "[SUCCESS] Initialization complete";
+
+    private static final String START_SYSTEMD = "[STEP] ----- Start systemd -----";
+
+    private final Instant startedAt;
+
+    private final Instant healthyAt;
+
+    private final List<Phase> phases = new ArrayList<>();
+
+    private StartupReport(Instant startedAt, Instant healthyAt) {
+        this.startedAt = startedAt;
+        this.healthyAt = healthyAt;
+    }
+
+    /**
+     * Collects the startup phases of the healthy container and writes the report
+     * to {@code target/startup-report-<slot>.json} and {@code target/startup-report-<slot>.md}.
+     */
+    static void write(GenericContainer<?> container, int slot, Instant healthyAt) throws IOException, InterruptedException {
+        Instant startedAt = Instant.parse(container.getContainerInfo().getState().getStartedAt());
+        StartupReport report = new StartupReport(startedAt, healthyAt);
+        DockerExecutor.CommandStep executor = DockerExecutor.session(container, Shell.BASH);
+        List<String> log = new ArrayList<>(readEntrypointLog(container));
+        log.addAll(readInitializationLog(executor));
+        log.sort(Comparator.comparing(StartupReport::getTimestamp));
+        Instant systemdStartedAt = report.addEntrypointPhases(log);
+        if (systemdStartedAt != null) {
+            report.addSystemdPhases(executor, systemdStartedAt);
+        }
+        Path target = Path.of("target");
+        Files.createDirectories(target);
+        Files.writeString(target.resolve("startup-report-%d.json".formatted(slot)), report.toJson());
+        Files.writeString(target.resolve("startup-report-%d.md".formatted(slot)), report.toMarkdown());
+    }
+
+    /**
+     * Reads the timestamped log lines of the container without the ANSI colors.
+     */
+    private static List<String> readEntrypointLog(GenericContainer<?> container) throws InterruptedException {
+        StringBuilder log = new StringBuilder();
+        container.getDockerClient()
+                .logContainerCmd(container.getContainerId())
+                .withStdOut(true)
+                .withStdErr(true)
+                .withTimestamps(true)
+                .exec(new ResultCallback.Adapter<Frame>() {
+
+                    @Override
+                    public void onNext(Frame frame) {
+                        log.append(new String(frame.getPayload(), StandardCharsets.UTF_8));
+                    }
+
+                })
+                .awaitCompletion();
+        return log.toString().lines()
+                .filter(line -> line.indexOf(' ') > 0)
+                .map(line -> ANSI_ESCAPE.matcher(line).replaceAll(""))
+                .toList();
+    }
+
+    /**
+     * Reads the journal of the initialization service of the current boot as timestamped log lines without the ANSI colors.
+     */
+    private static List<String> readInitializationLog(DockerExecutor.CommandStep executor)
+            throws IOException, InterruptedException {
+        String journal = executor.run("sudo journalctl --boot --unit %s --output short-unix --no-hostname --all --quiet"
+                .formatted(INITIALIZATION_UNIT)).exec();
+        return journal.lines().map(JOURNAL_LINE::matcher).filter(Matcher::matches).map(matcher -> {
+            Instant timestamp = Instant.ofEpochSecond(Long.parseLong(matcher.group(1)))
+                    .plus(Long.parseLong(matcher.group(2)), ChronoUnit.MICROS);
+            return timestamp + " " + ANSI_ESCAPE.matcher(matcher.group(3)).replaceAll("");
+        }).toList();
+    }
+
+    private static Instant getTimestamp(String line) {
+        return Instant.parse(line.substring(0, line.indexOf(' ')));
+    }
+
+    /**
+     * Adds the phases of the last container start and returns the time of the systemd start, if any.
+     * The init scripts may run concurrently, so each one is timed from its own running line to its finished line.
+     */
+    private Instant addEntrypointPhases(List<String> log) {
+        Instant initializationStartedAt = null;
+        Instant systemdStartedAt = null;
+        Map<String, Instant> runningFiles = new HashMap<>();
+        for (String line : log) {
+            Instant timestamp = getTimestamp(line);
+            String message = line.substring(line.indexOf(' ') + 1);
+            Matcher runningFileMatcher = RUNNING_FILE.matcher(message);
+            Matcher finishedFileMatcher = FINISHED_FILE.matcher(message);
+            if (message.equals(START_SYSTEMD)) {
+                phases.clear();
+                systemdStartedAt = timestamp;
+            } else if (message.equals(START_INITIALIZATION)) {
+                runningFiles.clear();
+                initializationStartedAt = timestamp;
+            } else if (runningFileMatcher.matches()) {
+                runningFiles.put(runningFileMatcher.group(1), timestamp);
+            } else if (finishedFileMatcher.matches()) {
+                Instant runningFileStartedAt = runningFiles.remove(finishedFileMatcher.group(1));
+                if (runningFileStartedAt != null) {
+                    addPhase(finishedFileMatcher.group(1), runningFileStartedAt, timestamp);
+                }
+            } else if (message.equals(INITIALIZATION_COMPLETE) && initializationStartedAt != null) {
+                addPhase("Initialization", initializationStartedAt, timestamp);
+            }
+        }
+        return systemdStartedAt;
+    }
+
+    /**
+     * Adds the systemd startup and the unit activation phases, based on the monotonic timestamps relative to the
+     * systemd userspace start.
+     */
+    private void addSystemdPhases(DockerExecutor.CommandStep executor, Instant systemdStartedAt)
+            throws IOException, InterruptedException {
+        Map<String, Long> manager = parseProperties(executor.run(
+                "systemctl show --property=UserspaceTimestampMonotonic --property=FinishTimestampMonotonic").exec());
+        long userspace = manager.getOrDefault("UserspaceTimestampMonotonic", 0L);
+        long finish = manager.getOrDefault("FinishTimestampMonotonic", 0L);
+        if (finish > userspace) {
+            addPhase("systemd startup", systemdStartedAt,
+                    systemdStartedAt.plus(Duration.of(finish - userspace, ChronoUnit.MICROS)));
+        }
+        for (String unit : SYSTEMD_UNITS) {
+            Map<String, Long> properties = parseProperties(executor.run(
+                    "systemctl show --property=InactiveExitTimestampMonotonic --property=ActiveEnterTimestampMonotonic"
+                            + " --property=InactiveEnterTimestampMonotonic " + unit).exec());
+            long inactiveExit = properties.getOrDefault("InactiveExitTimestampMonotonic", 0L);
+            long activeEnter = properties.getOrDefault("ActiveEnterTimestampMonotonic", 0L);
+            long end = activeEnter > 0 ? activeEnter : properties.getOrDefault("InactiveEnterTimestampMonotonic", 0L);
+            if (inactiveExit > 0 && end >= inactiveExit) {
+                addPhase(unit, systemdStartedAt.plus(Duration.of(inactiveExit - userspace, ChronoUnit.MICROS)),
+                        systemdStartedAt.plus(Duration.of(end - userspace, ChronoUnit.MICROS)));
+            }
+        }
+    }
+
+    private static Map<String, Long> parseProperties(String properties) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        properties.lines().map(line -> line.split("=", 2)).filter(parts -> parts.length == 2).forEach(parts -> {
+            try {
+                values.put(parts[0], Long.parseLong(parts[1].trim()));
+            } catch (NumberFormatException e) {
+                values.put(parts[0], 0L);
+            }
+        });
+        return values;
+    }
+
+    private void addPhase(String name, Instant start, Instant end) {
+        phases.add(new Phase(name, Duration.between(startedAt, start).toMillis(), Duration.between(start, end).toMillis()));
+    }
+
+    private String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"image\": %s,\n".formatted(quote(IMAGE_TAG)));
+        json.append("  \"startedAt\": %s,\n".formatted(quote(startedAt.toString())));
+        json.append("  \"healthyAfterMillis\": %d,\n".formatted(Duration.between(startedAt, healthyAt).toMillis()));
+        json.append("  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    { \"name\": %s, \"startMillis\": %d, \"durationMillis\": %d }".formatted(quote(phase.name()),
+                    phase.startMillis(), phase.durationMillis()));
+        }
+        json.append(phases.isEmpty() ? "]\n" : "\n  ]\n");
+        return json.append("}\n").toString();
+    }
+
+    private String toMarkdown() {
+        StringBuilder markdown = new StringBuilder("## Startup\n\n");
+        markdown.append("- Image **%s**\n".formatted(IMAGE_TAG));
+        markdown.append("- Healthy after **%d ms**\n\n".formatted(Duration.between(startedAt, healthyAt).toMillis()));
+        markdown.append("| Phase | Start [ms] | Duration [ms] |\n");
+        markdown.append("|-------|-----------:|--------------:|\n");
+        phases.forEach(phase -> markdown.append("| %s | %d | %d |\n".formatted(phase.name(), phase.startMillis(),
+                phase.durationMillis())));
+        return markdown.toString();
+    }
+
+    private record Phase(String name, long startMillis, long durationMillis) {
+
+    }
+
+}
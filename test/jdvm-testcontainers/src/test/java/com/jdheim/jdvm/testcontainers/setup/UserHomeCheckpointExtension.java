@@ -0,0 +1,51 @@
+/*
+ * © 2024-2025 JDHeim
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jdheim.jdvm.testcontainers.setup;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Restores the user home of the leased JDVM container before and after each {@link Mutating} test.
+ * The test starts from the initialized user home, and leaves no changes behind for the other tests.
+ */
+class UserHomeCheckpointExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws Exception {
+        if (isMutating(context)) {
+            restoreUserHome(context);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws Exception {
+        if (isMutating(context)) {
+            restoreUserHome(context);
+        }
+    }
+
+    private static void restoreUserHome(ExtensionContext context) throws Exception {
+        JDVMContainerPool.restoreUserHome(JDVMContainerPool.lease(context.getRequiredTestClass()));
+    }
+
+    private static boolean isMutating(ExtensionContext context) {
+        return context.getRequiredTestMethod().isAnnotationPresent(Mutating.class);
+    }
+
+}